@@ -0,0 +1,187 @@
+package com.nikolov.utilslib.arrays;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.InvalidParameterException;
+import java.util.function.IntConsumer;
+
+/**
+ * Precomputed multi-byte pattern (e.g. a sync marker) that can be searched for repeatedly
+ * in byte arrays, heap, direct and mapped buffers.
+ * <p>
+ * The search looks at 8 bytes at a time and finds candidate positions of the first pattern byte
+ * with a SWAR (SIMD within a register) zero byte test, so runs of bytes that can not start a match
+ * are skipped a word at a time. Only candidates are compared to the whole pattern.
+ */
+public final class BytePattern {
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final byte[] pattern;
+    private final byte first;
+    private final byte last;
+    private final long firstWord;
+
+    private BytePattern(byte[] pattern) {
+        this.pattern = pattern;
+        this.first = pattern[0];
+        this.last = pattern[pattern.length - 1];
+        this.firstWord = (first & 0xFFL) * ONES;
+    }
+
+    /**
+     * @param pattern bytes to search for
+     * @return precomputed pattern
+     */
+    public static BytePattern of(byte... pattern) {
+        if (pattern == null || pattern.length == 0) {
+            throw new InvalidParameterException("Pattern must not be empty");
+        }
+        return new BytePattern(pattern.clone());
+    }
+
+    public int length() {
+        return pattern.length;
+    }
+
+    public byte[] getBytes() {
+        return pattern.clone();
+    }
+
+    /**
+     * @param array array to search
+     * @return index of the first match or -1
+     */
+    public int indexOf(byte[] array) {
+        return indexOf(array, 0, array.length);
+    }
+
+    /**
+     * @param array array to search
+     * @param from  first index to look at (inclusive)
+     * @param to    end of the searched range (exclusive)
+     * @return index of the first match within the range or -1
+     */
+    public int indexOf(byte[] array, int from, int to) {
+        assertRange(array.length, from, to);
+        return find(ByteBuffer.wrap(array).order(ByteOrder.LITTLE_ENDIAN), from, to);
+    }
+
+    /**
+     * @param buffer buffer to search between its position and limit
+     * @return absolute index of the first match or -1
+     */
+    public int indexOf(ByteBuffer buffer) {
+        return indexOf(buffer, buffer.position(), buffer.limit());
+    }
+
+    /**
+     * @param buffer buffer to search; its position and limit are not changed
+     * @param from   first absolute index to look at (inclusive)
+     * @param to     end of the searched range (exclusive)
+     * @return absolute index of the first match within the range or -1
+     */
+    public int indexOf(ByteBuffer buffer, int from, int to) {
+        assertRange(buffer.limit(), from, to);
+        return find(littleEndian(buffer), from, to);
+    }
+
+    /**
+     * Reports every match in the range, overlapping matches included.
+     *
+     * @param array    array to search
+     * @param from     first index to look at (inclusive)
+     * @param to       end of the searched range (exclusive)
+     * @param consumer receives the index of every match
+     * @return number of matches
+     */
+    public int forEachMatch(byte[] array, int from, int to, IntConsumer consumer) {
+        assertRange(array.length, from, to);
+        return findAll(ByteBuffer.wrap(array).order(ByteOrder.LITTLE_ENDIAN), from, to, consumer);
+    }
+
+    /**
+     * Reports every match in the range, overlapping matches included.
+     *
+     * @param buffer   buffer to search; its position and limit are not changed
+     * @param from     first absolute index to look at (inclusive)
+     * @param to       end of the searched range (exclusive)
+     * @param consumer receives the absolute index of every match
+     * @return number of matches
+     */
+    public int forEachMatch(ByteBuffer buffer, int from, int to, IntConsumer consumer) {
+        assertRange(buffer.limit(), from, to);
+        return findAll(littleEndian(buffer), from, to, consumer);
+    }
+
+    private int findAll(ByteBuffer buffer, int from, int to, IntConsumer consumer) {
+        int matches = 0;
+        int index = find(buffer, from, to);
+        while (index >= 0) {
+            consumer.accept(index);
+            matches++;
+            index = find(buffer, index + 1, to);
+        }
+        return matches;
+    }
+
+    /**
+     * Core search, on a little endian view so that byte k of a word lands in bits 8k..8k+7.
+     */
+    private int find(ByteBuffer buffer, int from, int to) {
+        int lastStart = to - pattern.length;
+        int index = from;
+
+        while (index <= lastStart) {
+            if (to - index >= Long.BYTES) {
+                // Bytes equal to the first pattern byte become zero, then the lowest zero byte is located
+                long x = buffer.getLong(index) ^ firstWord;
+                long found = (x - ONES) & ~x & HIGH_BITS;
+                if (found == 0) {
+                    index += Long.BYTES;
+                    continue;
+                }
+                int candidate = index + (Long.numberOfTrailingZeros(found) >>> 3);
+                if (candidate > lastStart) {
+                    return -1;
+                }
+                if (matchesAt(buffer, candidate)) {
+                    return candidate;
+                }
+                index = candidate + 1;
+            } else {
+                if (buffer.get(index) == first && matchesAt(buffer, index)) {
+                    return index;
+                }
+                index++;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matchesAt(ByteBuffer buffer, int index) {
+        int lastIndex = pattern.length - 1;
+        if (buffer.get(index + lastIndex) != last) {
+            return false;
+        }
+        for (int i = 1; i < lastIndex; i++) {
+            if (buffer.get(index + i) != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ByteBuffer littleEndian(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        view.clear();
+        return view;
+    }
+
+    private static void assertRange(int length, int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new ArrayIndexOutOfBoundsException("Range [" + from + ", " + to + ") is out of bounds");
+        }
+    }
+}
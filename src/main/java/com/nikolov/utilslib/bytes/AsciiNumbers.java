@@ -0,0 +1,155 @@
+package com.nikolov.utilslib.bytes;
+
+import com.nikolov.utilslib.primitives.AsciiIntegerValue;
+import com.nikolov.utilslib.primitives.Decimals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Parses fixed width ASCII numbers straight from a {@link ByteBuffer}, without creating a String.
+ * <p>
+ * A field is: optional spaces, an optional '+' or '-', one or more digits (which covers zero padding),
+ * for decimals an optional '.' and fraction digits, then optional spaces. Runs of 8 digits are validated and
+ * converted at once with SWAR (SIMD within a register) arithmetic on a long, and runs of 8 padding spaces are
+ * skipped at once. Malformed or overflowing fields give {@link #INVALID} rather than an exception.
+ */
+public abstract class AsciiNumbers {
+
+    public static final long INVALID = AsciiIntegerValue.INVALID;
+
+    private static final long ZEROS = 0x3030303030303030L;
+    private static final long SPACES = 0x2020202020202020L;
+    private static final long HIGH_NIBBLES = 0xF0F0F0F0F0F0F0F0L;
+    private static final long SIXES = 0x0606060606060606L;
+
+    private AsciiNumbers() {
+    }
+
+    /**
+     * @param buffer buffer with data
+     * @param index  absolute index of the field
+     * @param width  field width in bytes
+     * @return the value, or {@link #INVALID}
+     */
+    public static long parseLong(ByteBuffer buffer, int index, int width) {
+        return parseDecimal(buffer, index, width, 0);
+    }
+
+    /**
+     * Parses a decimal to a mantissa with the given scale. Without a decimal point the digits
+     * are the mantissa, with one the fraction digits are scaled up to the given scale.
+     *
+     * @param buffer buffer with data
+     * @param index  absolute index of the field
+     * @param width  field width in bytes
+     * @param scale  number of fraction digits of the result
+     * @return the mantissa, or {@link #INVALID} if the field is malformed, overflows or has more fraction digits
+     */
+    public static long parseDecimal(ByteBuffer buffer, int index, int width, int scale) {
+        boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        int end = index + width;
+        int i = skipSpaces(buffer, index, end);
+        if (i == end) {
+            return INVALID;
+        }
+
+        boolean negative = false;
+        byte b = buffer.get(i);
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            i++;
+        }
+
+        int digitsStart = i;
+        long value = 0;
+        // 8 digits at a time
+        while (i + Long.BYTES <= end) {
+            long chunk = littleEndianLong(buffer, i, bigEndian);
+            if (!isEightDigits(chunk)) {
+                break;
+            }
+            long digits = eightDigits(chunk);
+            if (value > (Long.MAX_VALUE - digits) / 100_000_000L) {
+                return INVALID;
+            }
+            value = value * 100_000_000L + digits;
+            i += Long.BYTES;
+        }
+        // The rest one at a time
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                return INVALID;
+            }
+            value = value * 10 + digit;
+        }
+        if (i == digitsStart) {
+            return INVALID;
+        }
+
+        int fractionDigits = 0;
+        if (scale > 0 && i < end && buffer.get(i) == '.') {
+            for (i++; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                if (++fractionDigits > scale || value > (Long.MAX_VALUE - digit) / 10) {
+                    return INVALID;
+                }
+                value = value * 10 + digit;
+            }
+            if (fractionDigits < scale) {
+                long power = Decimals.powerOfTen(scale - fractionDigits);
+                if (value > Long.MAX_VALUE / power) {
+                    return INVALID;
+                }
+                value *= power;
+            }
+        }
+
+        if (skipSpaces(buffer, i, end) != end) {
+            return INVALID;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @param chunk 8 bytes, the first one lowest
+     * @return true if all the bytes are '0' to '9'
+     */
+    static boolean isEightDigits(long chunk) {
+        // All high nibbles are 3, and adding 6 to the low nibbles does not carry (low nibble at most 9)
+        return (chunk & HIGH_NIBBLES) == ZEROS && ((chunk + SIXES) & HIGH_NIBBLES) == ZEROS;
+    }
+
+    /**
+     * Converts 8 ASCII digits to their value, the first (lowest) byte being the most significant digit.
+     */
+    static long eightDigits(long chunk) {
+        chunk -= ZEROS;
+        // Combine pairs of digits, then pairs of pairs, then the two halves
+        chunk = (chunk * 10 + (chunk >>> 8)) & 0x00FF00FF00FF00FFL;
+        chunk = (chunk * 100 + (chunk >>> 16)) & 0x0000FFFF0000FFFFL;
+        return (chunk * 10000 + (chunk >>> 32)) & 0xFFFFFFFFL;
+    }
+
+    private static int skipSpaces(ByteBuffer buffer, int i, int end) {
+        while (i + Long.BYTES <= end && buffer.getLong(i) == SPACES) {
+            i += Long.BYTES;
+        }
+        while (i < end && buffer.get(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static long littleEndianLong(ByteBuffer buffer, int index, boolean bigEndian) {
+        long chunk = buffer.getLong(index);
+        return bigEndian ? Long.reverseBytes(chunk) : chunk;
+    }
+}
@@ -0,0 +1,323 @@
+package com.nikolov.utilslib.bytes;
+
+import com.nikolov.utilslib.bytes.codec.ColumnCodec;
+import com.nikolov.utilslib.bytes.exceptions.BufferEmptyException;
+import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
+import com.nikolov.utilslib.primitives.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Works like {@link FromBytesTranslator}, but over a sequence of byte array or buffer chunks
+ * (e.g. the fragments of a network frame) that are read as one continuous buffer, without
+ * merging them into a single array first.
+ * <p>
+ * Values that lie inside a single chunk are read in place. Only values that straddle a chunk
+ * boundary are stitched together from the pieces.
+ */
+public class CompositeTranslator {
+
+    private final ByteBuffer scratch = ByteBuffer.allocate(Long.BYTES);
+
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    // Global index of the first byte of each chunk, plus the total length at the end
+    private int[] starts = {0};
+    private int chunk;
+    private int positionIndex;
+
+    public void wrap(byte[]... arrays) {
+        List<ByteBuffer> buffers = new ArrayList<>(arrays.length);
+        for (byte[] array : arrays) {
+            buffers.add(ByteBuffer.wrap(array));
+        }
+        wrap(buffers);
+    }
+
+    /**
+     * Wraps the bytes between the position and the limit of each buffer. The buffers are not copied.
+     *
+     * @param buffers chunks in reading order
+     */
+    public void wrap(ByteBuffer... buffers) {
+        wrap(Arrays.asList(buffers));
+    }
+
+    /**
+     * Wraps the bytes between the position and the limit of each buffer. The buffers are not copied.
+     *
+     * @param buffers chunks in reading order
+     */
+    public void wrap(List<ByteBuffer> buffers) {
+        ByteOrder order = scratch.order();
+        List<ByteBuffer> views = new ArrayList<>(buffers.size());
+        for (ByteBuffer buffer : buffers) {
+            if (buffer.hasRemaining()) {
+                views.add(buffer.slice().order(order));
+            }
+        }
+
+        long total = 0;
+        int[] newStarts = new int[views.size() + 1];
+        for (int i = 0; i < views.size(); i++) {
+            newStarts[i] = (int) total;
+            total += views.get(i).remaining();
+            if (total > Integer.MAX_VALUE) {
+                throw new InvalidParameterException("Chunks are larger than 2 GB in total");
+            }
+        }
+        newStarts[views.size()] = (int) total;
+
+        chunks = views.toArray(new ByteBuffer[0]);
+        starts = newStarts;
+        chunk = 0;
+        positionIndex = 0;
+    }
+
+    public void setOrder(ByteOrder order) {
+        scratch.order(order);
+        for (ByteBuffer buffer : chunks) {
+            buffer.order(order);
+        }
+    }
+
+    public int getChunkCount() {
+        return chunks.length;
+    }
+
+    /**
+     * @return total number of bytes in all chunks
+     */
+    public int getLength() {
+        return starts[chunks.length];
+    }
+
+    public boolean isBufferEmpty() {
+        return getLength() == 0;
+    }
+
+    public int getBufferPositionIndex() {
+        return this.positionIndex;
+    }
+
+    public void resetBufferPositionIndex() {
+        this.positionIndex = 0;
+    }
+
+    public void setBufferPositionIndex(int position) {
+        this.positionIndex = position;
+    }
+
+    public boolean hasMoreToRead() {
+        return positionIndex < getLength();
+    }
+
+    public boolean canReadValue(int bytesToRead) {
+        return getLength() >= positionIndex + bytesToRead;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends Number> PrimitiveValue<T> getNumber(PrimitiveType type) {
+        return getNumber(type, positionIndex);
+    }
+
+    public <T extends Number> PrimitiveValue getNumber(PrimitiveType type, int bufferPosition) {
+        if (type == null) {
+            throw new InvalidParameterException();
+        }
+        return new NumberValue<>(type, readNumber(type, bufferPosition));
+    }
+
+    public PrimitiveValue<String> getString(int length) {
+        return getString(positionIndex, length);
+    }
+
+    public PrimitiveValue<String> getString(int start, int length) {
+        return new StringValue(readString(start, length));
+    }
+
+    public PrimitiveValue<Byte[]> getByteArray(int length) {
+        return new ByteArrayValue(readByteArray(positionIndex, length));
+    }
+
+    /**
+     * Fills the template with consecutive values, starting at the buffer position index.
+     *
+     * @param template template to fill
+     */
+    @SuppressWarnings("unchecked")
+    public void processTemplatedValues(PrimitiveValue[] template) {
+        for (PrimitiveValue pv : template) {
+            if (pv instanceof EncodedColumnValue) {
+                readColumn((EncodedColumnValue) pv, positionIndex);
+                continue;
+            }
+            if (!canReadValue(pv.getBytesCount())) {
+                throw new UnexpectedArrayLengthException();
+            }
+
+            Class<?> type = pv.getType();
+            if (pv instanceof AsciiIntegerValue) {
+                readAscii((AsciiIntegerValue) pv, positionIndex);
+            } else if (Objects.equals(type, Number.class)) {
+                pv.setValue(readNumber(((NumberValue) pv).getPrimitiveType(), positionIndex));
+            } else if (Objects.equals(type, String.class)) {
+                pv.setValue(readString(positionIndex, pv.getBytesCount()));
+            } else if (Objects.equals(type, Byte[].class)) {
+                pv.setValue(readByteArray(positionIndex, pv.getBytesCount()));
+            }
+        }
+    }
+
+    private Number readNumber(PrimitiveType type, int position) {
+        int bytes = type.getBytesCount();
+        int c = locate(position, bytes);
+        positionIndex = position + bytes;
+
+        int offset = position - starts[c];
+        if (offset + bytes <= chunks[c].limit()) {
+            return RawValues.getNumber(chunks[c], offset, type);
+        }
+
+        // The value straddles a chunk boundary
+        scratch.clear();
+        for (int i = 0; i < bytes; i++) {
+            if (offset == chunks[c].limit()) {
+                c++;
+                offset = 0;
+            }
+            scratch.put(chunks[c].get(offset++));
+        }
+        return RawValues.getNumber(scratch, 0, type);
+    }
+
+    private String readString(int position, int length) {
+        int c = locate(position, length);
+        positionIndex = position + length;
+
+        int offset = position - starts[c];
+        ByteBuffer buffer = chunks[c];
+        if (buffer.hasArray() && offset + length <= buffer.limit()) {
+            return new String(buffer.array(), buffer.arrayOffset() + offset, length);
+        }
+        return new String(copy(c, offset, length));
+    }
+
+    private void readAscii(AsciiIntegerValue value, int position) {
+        int length = value.getBytesCount();
+        int c = locate(position, length);
+        positionIndex = position + length;
+
+        int offset = position - starts[c];
+        if (offset + length <= chunks[c].limit()) {
+            value.setMantissa(AsciiNumbers.parseDecimal(chunks[c], offset, length, value.getScale()));
+        } else {
+            // The field straddles a chunk boundary
+            value.setMantissa(AsciiNumbers.parseDecimal(ByteBuffer.wrap(copy(c, offset, length)), 0, length,
+                    value.getScale()));
+        }
+    }
+
+    private void readColumn(EncodedColumnValue value, int position) {
+        int c = locate(position, ColumnCodec.HEADER_BYTES);
+        int offset = position - starts[c];
+        int length = ColumnCodec.blockLength(contiguous(c, offset, ColumnCodec.HEADER_BYTES), 0,
+                (long) getLength() - position);
+
+        c = locate(position, length);
+        ByteBuffer block = contiguous(c, offset, length);
+        int count = ColumnCodec.valueCount(block, 0);
+        ColumnCodec.decode(block, 0, value.ensureCapacity(count), 0);
+        value.setDecoded(count, length);
+        positionIndex = position + length;
+    }
+
+    /**
+     * Returns the bytes from the offset of chunk c on as one buffer starting at index 0,
+     * copying them only if they straddle a chunk boundary.
+     */
+    private ByteBuffer contiguous(int c, int offset, int length) {
+        ByteBuffer buffer;
+        if (offset + length <= chunks[c].limit()) {
+            buffer = chunks[c].duplicate();
+            buffer.position(offset);
+            buffer = buffer.slice();
+        } else {
+            buffer = ByteBuffer.wrap(copy(c, offset, length));
+        }
+        return buffer.order(scratch.order());
+    }
+
+    private Byte[] readByteArray(int position, int length) {
+        int c = locate(position, length);
+        positionIndex = position + length;
+
+        int offset = position - starts[c];
+        Byte[] res = new Byte[length];
+        for (int i = 0; i < length; i++) {
+            if (offset == chunks[c].limit()) {
+                c++;
+                offset = 0;
+            }
+            res[i] = chunks[c].get(offset++);
+        }
+        return res;
+    }
+
+    private byte[] copy(int c, int offset, int length) {
+        byte[] res = new byte[length];
+        int copied = 0;
+        while (copied < length) {
+            ByteBuffer buffer = chunks[c];
+            int n = Math.min(length - copied, buffer.limit() - offset);
+            if (buffer.hasArray()) {
+                System.arraycopy(buffer.array(), buffer.arrayOffset() + offset, res, copied, n);
+            } else {
+                for (int i = 0; i < n; i++) {
+                    res[copied + i] = buffer.get(offset + i);
+                }
+            }
+            copied += n;
+            c++;
+            offset = 0;
+        }
+        return res;
+    }
+
+    /**
+     * Finds the chunk that holds the byte at position, checking that length bytes can be read from it.
+     */
+    private int locate(int position, int length) {
+        if (isBufferEmpty()) {
+            throw new BufferEmptyException();
+        }
+        if (position < 0 || length < 0 || position > getLength() - length) {
+            throw new UnexpectedArrayLengthException();
+        }
+        if (length == 0 && position == getLength()) {
+            return chunk;
+        }
+
+        // Values are mostly read in order, so try the chunk of the last read first
+        if (position >= starts[chunk] && position < starts[chunk + 1]) {
+            return chunk;
+        }
+        int low = 0;
+        int high = chunks.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        chunk = low;
+        return low;
+    }
+}
@@ -0,0 +1,102 @@
+package com.nikolov.utilslib.bytes;
+
+import com.nikolov.utilslib.primitives.DecimalValue;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.nio.ByteBuffer;
+import java.security.InvalidParameterException;
+
+/**
+ * Bulk decoding of a {@link DecimalValue} field of fixed width records into an array of mantissas.
+ * All mantissas of a column share the scale of the template field, see {@link com.nikolov.utilslib.primitives.Decimals}
+ * for working with them.
+ */
+public final class DecimalColumns {
+
+    private final DecimalValue field;
+    private final int fieldOffset;
+    private final int recordLength;
+
+    private DecimalColumns(DecimalValue field, int fieldOffset, int recordLength) {
+        this.field = field;
+        this.fieldOffset = fieldOffset;
+        this.recordLength = recordLength;
+    }
+
+    /**
+     * @param template record template
+     * @param field    index of a {@link DecimalValue} in the template
+     * @return column decoder
+     */
+    public static DecimalColumns of(PrimitiveValue[] template, int field) {
+        TemplateProjection projection = TemplateProjection.of(template, field);
+        if (!(template[field] instanceof DecimalValue)) {
+            throw new InvalidParameterException("Field " + field + " is not a decimal");
+        }
+        return new DecimalColumns((DecimalValue) template[field], projection.getOffset(0),
+                projection.getRecordLength());
+    }
+
+    public int getScale() {
+        return field.getScale();
+    }
+
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * Decodes the mantissas of the records between the buffer position and its limit,
+     * as many as fit in the array. The buffer position is not changed.
+     *
+     * @param buffer    records
+     * @param mantissas where to put the mantissas
+     * @param offset    first index in mantissas
+     * @return number of decoded records
+     */
+    public int decode(ByteBuffer buffer, long[] mantissas, int offset) {
+        if (offset < 0 || offset > mantissas.length) {
+            throw new ArrayIndexOutOfBoundsException(offset);
+        }
+        int records = (buffer.limit() - buffer.position()) / recordLength;
+        int count = Math.min(records, mantissas.length - offset);
+        RawValues.getLongs(buffer, buffer.position() + fieldOffset, recordLength, field.getPrimitiveType(),
+                mantissas, offset, count);
+        return count;
+    }
+
+    /**
+     * Decodes the mantissas of a file of records, starting from the given record and as many as fit in the array.
+     *
+     * @param file        records
+     * @param firstRecord number of the first record to decode
+     * @param mantissas   where to put the mantissas
+     * @param offset      first index in mantissas
+     * @return number of decoded records
+     */
+    public int decode(MappedRecordFile file, long firstRecord, long[] mantissas, int offset) {
+        if (file.getRecordLength() != recordLength) {
+            throw new InvalidParameterException("File record length does not match the template");
+        }
+        if (firstRecord < 0 || firstRecord > file.getRecordCount()) {
+            throw new InvalidParameterException("First record is out of the file");
+        }
+        if (offset < 0 || offset > mantissas.length) {
+            throw new ArrayIndexOutOfBoundsException(offset);
+        }
+
+        int count = (int) Math.min(file.getRecordCount() - firstRecord, mantissas.length - offset);
+        int recordsPerWindow = file.getRecordsPerWindow();
+        int done = 0;
+        while (done < count) {
+            long record = firstRecord + done;
+            int window = (int) (record / recordsPerWindow);
+            int inWindow = (int) (record % recordsPerWindow);
+            int n = Math.min(count - done, recordsPerWindow - inWindow);
+            RawValues.getLongs(file.window(window), inWindow * recordLength + fieldOffset, recordLength,
+                    field.getPrimitiveType(), mantissas, offset + done, n);
+            done += n;
+        }
+        return count;
+    }
+}
@@ -1,10 +1,13 @@
 package com.nikolov.utilslib.bytes;
 
 import com.nikolov.utilslib.arrays.ArrayUtils;
+import com.nikolov.utilslib.arrays.BytePattern;
+import com.nikolov.utilslib.bytes.codec.ColumnCodec;
 import com.nikolov.utilslib.bytes.exceptions.BufferEmptyException;
 import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
 import com.nikolov.utilslib.primitives.*;
 
+import java.io.Serializable;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -298,6 +301,30 @@ public class FromBytesTranslator {
         byteBuffer.order(order);
     }
 
+    /**
+     * Moves the buffer position index to the next occurrence of the pattern at or after it,
+     * e.g. to the next frame sync marker.
+     *
+     * @param pattern pattern to look for
+     * @return true if found; false if not, leaving the position index unchanged
+     */
+    public boolean seek(BytePattern pattern) {
+        if (isBufferEmpty()) {
+            throw new BufferEmptyException();
+        }
+        byte[] array = byteBuffer.array();
+        if (positionIndex >= array.length) {
+            return false;
+        }
+
+        int index = pattern.indexOf(array, positionIndex, array.length);
+        if (index < 0) {
+            return false;
+        }
+        positionIndex = index;
+        return true;
+    }
+
     public boolean hasMoreToRead() {
         return positionIndex < byteBuffer.array().length;
     }
@@ -311,11 +338,20 @@ public class FromBytesTranslator {
 
         PrimitiveValue temp = null;
         for (PrimitiveValue pv : template) {
+            if (pv instanceof EncodedColumnValue) {
+                readColumn((EncodedColumnValue) pv);
+                continue;
+            }
             Class<?> type = pv.getType();
             if (!canReadValue(pv.getBytesCount())) {
                 throw new UnexpectedArrayLengthException();
             }
 
+            if (pv instanceof AsciiIntegerValue) {
+                readAscii((AsciiIntegerValue) pv, positionIndex);
+                positionIndex += pv.getBytesCount();
+                continue;
+            }
             if (Objects.equals(type, Number.class)) {
                 temp = getNumber(((NumberValue) pv).getPrimitiveType());
             } else if (Objects.equals(type, String.class)) {
@@ -330,6 +366,115 @@ public class FromBytesTranslator {
         }
     }
 
+    /**
+     * Fills the template like {@link #processTemplatedValues(PrimitiveValue[])}, for trusted buffers.
+     * The length of the whole record is checked against the rest of the buffer once, then all fields
+     * are read in place with no further checks. A record that does not fit still fails at that check.
+     * Variable length fields are not supported.
+     *
+     * @param template record template
+     */
+    @SuppressWarnings("unchecked")
+    public void processTemplatedValuesUnchecked(PrimitiveValue[] template) {
+        int recordLength = 0;
+        for (PrimitiveValue pv : template) {
+            if (pv instanceof EncodedColumnValue) {
+                throw new InvalidParameterException("Template has variable length fields");
+            }
+            recordLength += pv.getBytesCount();
+        }
+        if (isBufferEmpty()) {
+            throw new BufferEmptyException();
+        }
+        if (positionIndex < 0 || !canReadValue(recordLength)) {
+            throw new UnexpectedArrayLengthException();
+        }
+
+        int index = positionIndex;
+        for (PrimitiveValue pv : template) {
+            if (pv instanceof AsciiIntegerValue) {
+                readAscii((AsciiIntegerValue) pv, index);
+            } else {
+                pv.setValue(readValue(pv, index));
+            }
+            index += pv.getBytesCount();
+        }
+        positionIndex = index;
+    }
+
+    /**
+     * Fills only the projected fields of the template and moves past the whole record.
+     * Skipped fields are not read, copied or allocated.
+     *
+     * @param template   record template
+     * @param projection fields to fill, made for this template
+     */
+    @SuppressWarnings("unchecked")
+    public void processTemplatedValues(PrimitiveValue[] template, TemplateProjection projection) {
+
+        if (projection.getTemplateSize() != template.length) {
+            throw new InvalidParameterException("Projection was made for another template");
+        }
+        if (isBufferEmpty()) {
+            throw new BufferEmptyException();
+        }
+        if (!canReadValue(projection.getRecordLength())) {
+            throw new UnexpectedArrayLengthException();
+        }
+
+        int recordStart = positionIndex;
+        for (int i = 0; i < projection.size(); i++) {
+            PrimitiveValue pv = template[projection.getField(i)];
+            if (pv instanceof AsciiIntegerValue) {
+                readAscii((AsciiIntegerValue) pv, recordStart + projection.getOffset(i));
+            } else {
+                pv.setValue(readValue(pv, recordStart + projection.getOffset(i)));
+            }
+        }
+        positionIndex = recordStart + projection.getRecordLength();
+    }
+
+    /**
+     * Reads a template field value in place, without the intermediate copy done by the getters.
+     */
+    private Serializable readValue(PrimitiveValue pv, int index) {
+        Class<?> type = pv.getType();
+        if (Objects.equals(type, Number.class)) {
+            return RawValues.getNumber(byteBuffer, index, ((NumberValue) pv).getPrimitiveType());
+        } else if (Objects.equals(type, String.class)) {
+            return new String(byteBuffer.array(), index, pv.getBytesCount());
+        } else if (Objects.equals(type, Byte[].class)) {
+            byte[] array = byteBuffer.array();
+            Byte[] res = new Byte[pv.getBytesCount()];
+            for (int i = 0; i < res.length; i++) {
+                res[i] = array[index + i];
+            }
+            return res;
+        }
+        throw new InvalidParameterException("Template value type is not supported");
+    }
+
+    /**
+     * Parses an ASCII number in place. A malformed field leaves the value invalid instead of throwing.
+     */
+    private void readAscii(AsciiIntegerValue value, int index) {
+        value.setMantissa(AsciiNumbers.parseDecimal(byteBuffer, index, value.getBytesCount(), value.getScale()));
+    }
+
+    /**
+     * Decodes an encoded column block at the position index, whose length is only known from its header.
+     */
+    private void readColumn(EncodedColumnValue value) {
+        if (isBufferEmpty()) {
+            throw new BufferEmptyException();
+        }
+        int length = ColumnCodec.blockLength(byteBuffer, positionIndex);
+        int count = ColumnCodec.valueCount(byteBuffer, positionIndex);
+        ColumnCodec.decode(byteBuffer, positionIndex, value.ensureCapacity(count), 0);
+        value.setDecoded(count, length);
+        positionIndex += length;
+    }
+
     private static void assertByteArrayLength(byte[] array, int expectedLength) {
         if (array.length != expectedLength) {
             throw new UnexpectedArrayLengthException();
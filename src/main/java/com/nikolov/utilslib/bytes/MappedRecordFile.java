@@ -0,0 +1,109 @@
+package com.nikolov.utilslib.bytes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.InvalidParameterException;
+
+/**
+ * Read only memory mapping of a file of fixed width records. Files larger than 2 GB are mapped
+ * in several windows; every window holds whole records only, so a record never spans two windows.
+ * A trailing record that is cut short is ignored.
+ */
+public final class MappedRecordFile {
+
+    private final int recordLength;
+    private final int recordsPerWindow;
+    private final long recordCount;
+    private final ByteOrder order;
+    private final MappedByteBuffer[] windows;
+
+    private MappedRecordFile(int recordLength, int recordsPerWindow, long recordCount, ByteOrder order,
+                             MappedByteBuffer[] windows) {
+        this.recordLength = recordLength;
+        this.recordsPerWindow = recordsPerWindow;
+        this.recordCount = recordCount;
+        this.order = order;
+        this.windows = windows;
+    }
+
+    /**
+     * Maps a file of records.
+     *
+     * @param file         file with records
+     * @param recordLength record length in bytes
+     * @param order        byte order of the record values
+     * @return mapped file
+     * @throws IOException if the file can not be mapped
+     */
+    public static MappedRecordFile open(Path file, int recordLength, ByteOrder order) throws IOException {
+        return open(file, recordLength, order, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Maps a file of records, using windows of at most the given size.
+     *
+     * @param file           file with records
+     * @param recordLength   record length in bytes
+     * @param order          byte order of the record values
+     * @param maxWindowBytes upper limit of a window size
+     * @return mapped file
+     * @throws IOException if the file can not be mapped
+     */
+    public static MappedRecordFile open(Path file, int recordLength, ByteOrder order, int maxWindowBytes)
+            throws IOException {
+        if (recordLength <= 0 || maxWindowBytes < recordLength) {
+            throw new InvalidParameterException("Record length must be positive and fit in a window");
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long recordCount = channel.size() / recordLength;
+            int recordsPerWindow = maxWindowBytes / recordLength;
+            int windowCount = (int) ((recordCount + recordsPerWindow - 1) / recordsPerWindow);
+
+            MappedByteBuffer[] windows = new MappedByteBuffer[windowCount];
+            for (int i = 0; i < windowCount; i++) {
+                long firstRecord = (long) i * recordsPerWindow;
+                long records = Math.min(recordsPerWindow, recordCount - firstRecord);
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, firstRecord * recordLength,
+                        records * recordLength);
+            }
+            return new MappedRecordFile(recordLength, recordsPerWindow, recordCount, order, windows);
+        }
+    }
+
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public int getRecordsPerWindow() {
+        return recordsPerWindow;
+    }
+
+    public int getWindowCount() {
+        return windows.length;
+    }
+
+    public ByteOrder getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns a window of the file. Every call returns a new view with its own position and limit,
+     * so different threads can read the same window.
+     *
+     * @param window window number
+     * @return buffer over the window, set to the file byte order
+     */
+    public ByteBuffer window(int window) {
+        return windows[window].duplicate().order(order);
+    }
+}
@@ -0,0 +1,189 @@
+package com.nikolov.utilslib.bytes;
+
+import com.nikolov.utilslib.primitives.PrimitiveType;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.InvalidParameterException;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+
+/**
+ * Reads primitive values straight from a {@link ByteBuffer} at an absolute index, without copying
+ * or boxing. Works for heap, direct and mapped buffers alike and uses the buffer's {@link java.nio.ByteOrder}.
+ */
+public abstract class RawValues {
+
+    private RawValues() {
+    }
+
+    /**
+     * Reads an integral value as a Java long. Signed types are sign extended, unsigned
+     * types are zero extended. UINT64 values are returned as their raw bits.
+     *
+     * @param buffer buffer with data
+     * @param index  absolute index of the value
+     * @param type   integral {@link PrimitiveType}
+     * @return the value as a long
+     */
+    public static long getLong(ByteBuffer buffer, int index, PrimitiveType type) {
+        // Switching on the ids keeps this free of the isOfType() chain in hot loops
+        switch (type.getId()) {
+            case 1: // INT8
+                return buffer.get(index);
+            case 2: // INT16
+                return buffer.getShort(index);
+            case 3: // INT32
+                return buffer.getInt(index);
+            case 4: // INT64
+            case 8: // UINT64
+                return buffer.getLong(index);
+            case 5: // UINT8
+                return buffer.get(index) & 0xFFL;
+            case 6: // UINT16
+                return buffer.getShort(index) & 0xFFFFL;
+            case 7: // UINT32
+                return buffer.getInt(index) & 0xFFFFFFFFL;
+            default:
+                throw new InvalidParameterException("Primitive type is not integral");
+        }
+    }
+
+    /**
+     * Reads a column of integral values, one every {@code stride} bytes, like {@link #getLong} does for one.
+     *
+     * @param buffer buffer with data
+     * @param index  absolute index of the first value
+     * @param stride distance between two values in bytes, usually the record length
+     * @param type   integral {@link PrimitiveType}
+     * @param out    where to put the values
+     * @param offset first index in out
+     * @param count  number of values
+     */
+    public static void getLongs(ByteBuffer buffer, int index, int stride, PrimitiveType type,
+                                long[] out, int offset, int count) {
+        int end = offset + count;
+        // One loop per type so the switch is not taken for every value
+        switch (type.getId()) {
+            case 1: // INT8
+                for (int i = offset; i < end; i++, index += stride) {
+                    out[i] = buffer.get(index);
+                }
+                break;
+            case 2: // INT16
+                for (int i = offset; i < end; i++, index += stride) {
+                    out[i] = buffer.getShort(index);
+                }
+                break;
+            case 3: // INT32
+                for (int i = offset; i < end; i++, index += stride) {
+                    out[i] = buffer.getInt(index);
+                }
+                break;
+            case 4: // INT64
+            case 8: // UINT64
+                for (int i = offset; i < end; i++, index += stride) {
+                    out[i] = buffer.getLong(index);
+                }
+                break;
+            case 5: // UINT8
+                for (int i = offset; i < end; i++, index += stride) {
+                    out[i] = buffer.get(index) & 0xFFL;
+                }
+                break;
+            case 6: // UINT16
+                for (int i = offset; i < end; i++, index += stride) {
+                    out[i] = buffer.getShort(index) & 0xFFFFL;
+                }
+                break;
+            case 7: // UINT32
+                for (int i = offset; i < end; i++, index += stride) {
+                    out[i] = buffer.getInt(index) & 0xFFFFFFFFL;
+                }
+                break;
+            default:
+                throw new InvalidParameterException("Primitive type is not integral");
+        }
+    }
+
+    /**
+     * Reads any numeric value as a Java double. UINT64 values are converted as unsigned.
+     *
+     * @param buffer buffer with data
+     * @param index  absolute index of the value
+     * @param type   {@link PrimitiveType} of the value
+     * @return the value as a double
+     */
+    public static double getDouble(ByteBuffer buffer, int index, PrimitiveType type) {
+        switch (type.getId()) {
+            case 8: // UINT64
+                return unsignedToDouble(buffer.getLong(index));
+            case 9: // FLOAT
+                return buffer.getFloat(index);
+            case 10: // DOUBLE
+                return buffer.getDouble(index);
+            default:
+                return getLong(buffer, index, type);
+        }
+    }
+
+    /**
+     * Converts the bits of an unsigned 64 bit value to the nearest double.
+     *
+     * @param value unsigned value
+     * @return value as a double
+     */
+    public static double unsignedToDouble(long value) {
+        if (value >= 0) {
+            return value;
+        }
+        // Halve it keeping the lowest bit for correct rounding, then double it back
+        return ((value >>> 1) | (value & 1)) * 2.0;
+    }
+
+    /**
+     * Reads a value as the same Java type the {@link FromBytesTranslator} getters produce,
+     * e.g. Short for UINT8 and BigInteger for UINT64.
+     *
+     * @param buffer buffer with data
+     * @param index  absolute index of the value
+     * @param type   {@link PrimitiveType} of the value
+     * @return boxed value
+     */
+    public static Number getNumber(ByteBuffer buffer, int index, PrimitiveType type) {
+        switch (type.getId()) {
+            case 1: // INT8
+                return buffer.get(index);
+            case 2: // INT16
+                return buffer.getShort(index);
+            case 3: // INT32
+                return buffer.getInt(index);
+            case 4: // INT64
+                return buffer.getLong(index);
+            case 5: // UINT8
+                return (short) (buffer.get(index) & 0xFF);
+            case 6: // UINT16
+                return buffer.getShort(index) & 0xFFFF;
+            case 7: // UINT32
+                return buffer.getInt(index) & 0xFFFFFFFFL;
+            case 8: // UINT64
+                return new BigInteger(Long.toUnsignedString(buffer.getLong(index)));
+            case 9: // FLOAT
+                return buffer.getFloat(index);
+            case 10: // DOUBLE
+                return buffer.getDouble(index);
+            default:
+                throw new InvalidParameterException("Primitive type id is not valid");
+        }
+    }
+
+    /**
+     * Returns true if the type is one of the integral types (signed or unsigned).
+     *
+     * @param type primitive type
+     * @return true for INT8..INT64 and UINT8..UINT64
+     */
+    public static boolean isIntegral(PrimitiveType type) {
+        return !type.isOfType(FLOAT) && !type.isOfType(DOUBLE);
+    }
+}
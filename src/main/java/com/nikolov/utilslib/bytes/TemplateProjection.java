@@ -0,0 +1,113 @@
+package com.nikolov.utilslib.bytes;
+
+import com.nikolov.utilslib.primitives.EncodedColumnValue;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Subset of the fields of a template, with the offset of every selected field from the record start
+ * worked out once. Used by {@link FromBytesTranslator#processTemplatedValues(PrimitiveValue[], TemplateProjection)}
+ * to jump straight to the needed fields and skip everything else in the record.
+ */
+public final class TemplateProjection {
+
+    private final int templateSize;
+    private final int recordLength;
+    private final int[] fields;
+    private final int[] offsets;
+
+    private TemplateProjection(int templateSize, int recordLength, int[] fields, int[] offsets) {
+        this.templateSize = templateSize;
+        this.recordLength = recordLength;
+        this.fields = fields;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Creates a projection over a template.
+     *
+     * @param template record template
+     * @param fields   indices of the template fields to keep
+     * @return projection
+     */
+    public static TemplateProjection of(PrimitiveValue[] template, int... fields) {
+        if (template == null || fields == null) {
+            throw new InvalidParameterException();
+        }
+
+        int[] templateOffsets = new int[template.length];
+        int recordLength = 0;
+        for (int i = 0; i < template.length; i++) {
+            if (template[i] instanceof EncodedColumnValue) {
+                throw new InvalidParameterException("Template has variable length fields");
+            }
+            templateOffsets[i] = recordLength;
+            recordLength += template[i].getBytesCount();
+        }
+
+        int[] offsets = new int[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] < 0 || fields[i] >= template.length) {
+                throw new InvalidParameterException("Field index is out of the template");
+            }
+            offsets[i] = templateOffsets[fields[i]];
+        }
+        return new TemplateProjection(template.length, recordLength, fields.clone(), offsets);
+    }
+
+    /**
+     * Length of the records of a template, for code that steps over records of a fixed size.
+     *
+     * @param template record template
+     * @return sum of the field lengths
+     * @throws InvalidParameterException if the template has variable length fields
+     */
+    public static int recordLength(PrimitiveValue[] template) {
+        int length = 0;
+        for (PrimitiveValue pv : template) {
+            if (pv instanceof EncodedColumnValue) {
+                throw new InvalidParameterException("Template has variable length fields");
+            }
+            length += pv.getBytesCount();
+        }
+        return length;
+    }
+
+    /**
+     * @return number of fields in the template this projection was made for
+     */
+    public int getTemplateSize() {
+        return templateSize;
+    }
+
+    /**
+     * @return length of the whole record in bytes
+     */
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * @return number of selected fields
+     */
+    public int size() {
+        return fields.length;
+    }
+
+    /**
+     * @param i index in the projection
+     * @return index of the selected field in the template
+     */
+    public int getField(int i) {
+        return fields[i];
+    }
+
+    /**
+     * @param i index in the projection
+     * @return offset of the selected field from the record start
+     */
+    public int getOffset(int i) {
+        return offsets[i];
+    }
+}
@@ -0,0 +1,284 @@
+package com.nikolov.utilslib.bytes.aggregate;
+
+import com.nikolov.utilslib.bytes.MappedRecordFile;
+import com.nikolov.utilslib.bytes.RawValues;
+import com.nikolov.utilslib.bytes.TemplateProjection;
+import com.nikolov.utilslib.primitives.DecimalValue;
+import com.nikolov.utilslib.primitives.NumberValue;
+import com.nikolov.utilslib.primitives.PrimitiveType;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.nio.ByteBuffer;
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes statistics and histograms of one numeric template field over a buffer or a mapped file
+ * of fixed width records. The records are split in slices that are processed in parallel on the
+ * common {@link ForkJoinPool}. Values are read straight from the encoded bytes, nothing is decoded
+ * or allocated per record.
+ */
+public final class FieldAggregator {
+
+    private static final int MIN_RECORDS_PER_SLICE = 16 * 1024;
+    private static final int SLICES_PER_THREAD = 4;
+
+    private final PrimitiveType type;
+    private final int fieldOffset;
+    private final int recordLength;
+
+    private FieldAggregator(PrimitiveType type, int fieldOffset, int recordLength) {
+        this.type = type;
+        this.fieldOffset = fieldOffset;
+        this.recordLength = recordLength;
+    }
+
+    /**
+     * Creates an aggregator for a numeric template field.
+     *
+     * @param template record template
+     * @param field    index of the numeric field in the template, not a {@link DecimalValue}
+     * @return aggregator
+     */
+    public static FieldAggregator of(PrimitiveValue[] template, int field) {
+        TemplateProjection projection = TemplateProjection.of(template, field);
+        if (!Objects.equals(template[field].getType(), Number.class)) {
+            throw new InvalidParameterException("Field " + field + " is not numeric");
+        }
+        if (template[field] instanceof DecimalValue) {
+            // Sums and extremes would come back as unscaled mantissas
+            throw new InvalidParameterException("Field " + field + " is a decimal");
+        }
+        PrimitiveType type = ((NumberValue) template[field]).getPrimitiveType();
+        return new FieldAggregator(type, projection.getOffset(0), projection.getRecordLength());
+    }
+
+    /**
+     * Computes statistics over the records between the buffer position and its limit.
+     *
+     * @param buffer buffer with records
+     * @return statistics
+     */
+    public FieldStatistics statistics(ByteBuffer buffer) {
+        return statistics(slices(buffer));
+    }
+
+    /**
+     * Computes statistics over all records of a mapped file.
+     *
+     * @param file mapped records
+     * @return statistics
+     */
+    public FieldStatistics statistics(MappedRecordFile file) {
+        return statistics(slices(file));
+    }
+
+    /**
+     * Computes a histogram over the records between the buffer position and its limit.
+     *
+     * @param buffer     buffer with records
+     * @param lowerBound smallest value of the first bin
+     * @param upperBound largest value of the last bin
+     * @param bins       number of bins
+     * @return histogram
+     */
+    public Histogram histogram(ByteBuffer buffer, double lowerBound, double upperBound, int bins) {
+        return histogram(slices(buffer), lowerBound, upperBound, bins);
+    }
+
+    /**
+     * Computes a histogram over all records of a mapped file.
+     *
+     * @param file       mapped records
+     * @param lowerBound smallest value of the first bin
+     * @param upperBound largest value of the last bin
+     * @param bins       number of bins
+     * @return histogram
+     */
+    public Histogram histogram(MappedRecordFile file, double lowerBound, double upperBound, int bins) {
+        return histogram(slices(file), lowerBound, upperBound, bins);
+    }
+
+    private FieldStatistics statistics(List<Slice> slices) {
+        return slices.parallelStream()
+                .map(slice -> {
+                    FieldStatistics.Accumulator accumulator = new FieldStatistics.Accumulator(type);
+                    accumulate(slice, accumulator);
+                    return accumulator;
+                })
+                .reduce((left, right) -> {
+                    left.merge(right);
+                    return left;
+                })
+                .orElseGet(() -> new FieldStatistics.Accumulator(type))
+                .toStatistics();
+    }
+
+    private Histogram histogram(List<Slice> slices, double lowerBound, double upperBound, int bins) {
+        if (bins <= 0 || !(upperBound > lowerBound)) {
+            throw new InvalidParameterException("Histogram needs bins and a non empty range");
+        }
+
+        // Last two slots hold underflow and overflow
+        long[] counts = slices.parallelStream()
+                .map(slice -> {
+                    long[] sliceCounts = new long[bins + 2];
+                    fill(slice, lowerBound, upperBound, sliceCounts);
+                    return sliceCounts;
+                })
+                .reduce((left, right) -> {
+                    for (int i = 0; i < left.length; i++) {
+                        left[i] += right[i];
+                    }
+                    return left;
+                })
+                .orElseGet(() -> new long[bins + 2]);
+
+        long[] binCounts = new long[bins];
+        System.arraycopy(counts, 0, binCounts, 0, bins);
+        return new Histogram(lowerBound, upperBound, binCounts, counts[bins], counts[bins + 1]);
+    }
+
+    private void accumulate(Slice slice, FieldStatistics.Accumulator accumulator) {
+        ByteBuffer buffer = slice.buffer;
+        int end = slice.end;
+        long count = 0;
+
+        if (accumulator.isFloating()) {
+            double min = accumulator.doubleMin;
+            double max = accumulator.doubleMax;
+            double sum = accumulator.doubleSum;
+            for (int i = slice.start + fieldOffset; i < end; i += recordLength) {
+                double value = RawValues.getDouble(buffer, i, type);
+                sum += value;
+                if (value < min) {
+                    min = value;
+                }
+                if (value > max) {
+                    max = value;
+                }
+                count++;
+            }
+            accumulator.doubleMin = min;
+            accumulator.doubleMax = max;
+            accumulator.doubleSum = sum;
+        } else if (accumulator.isUnsigned64()) {
+            long min = accumulator.longMin;
+            long max = accumulator.longMax;
+            long high = accumulator.sumHigh;
+            long low = accumulator.sumLow;
+            for (int i = slice.start + fieldOffset; i < end; i += recordLength) {
+                long value = buffer.getLong(i);
+                long sum = low + value;
+                if (Long.compareUnsigned(sum, low) < 0) {
+                    high++;
+                }
+                low = sum;
+                if (Long.compareUnsigned(value, min) < 0) {
+                    min = value;
+                }
+                if (Long.compareUnsigned(value, max) > 0) {
+                    max = value;
+                }
+                count++;
+            }
+            accumulator.longMin = min;
+            accumulator.longMax = max;
+            accumulator.sumHigh = high;
+            accumulator.sumLow = low;
+        } else {
+            long min = accumulator.longMin;
+            long max = accumulator.longMax;
+            long high = accumulator.sumHigh;
+            long low = accumulator.sumLow;
+            for (int i = slice.start + fieldOffset; i < end; i += recordLength) {
+                long value = RawValues.getLong(buffer, i, type);
+                // 128 bit addition of the sign extended value
+                long sum = low + value;
+                high += (value >> 63) + (Long.compareUnsigned(sum, low) < 0 ? 1 : 0);
+                low = sum;
+                if (value < min) {
+                    min = value;
+                }
+                if (value > max) {
+                    max = value;
+                }
+                count++;
+            }
+            accumulator.longMin = min;
+            accumulator.longMax = max;
+            accumulator.sumHigh = high;
+            accumulator.sumLow = low;
+        }
+        accumulator.count += count;
+    }
+
+    private void fill(Slice slice, double lowerBound, double upperBound, long[] counts) {
+        ByteBuffer buffer = slice.buffer;
+        int bins = counts.length - 2;
+        int lastBin = bins - 1;
+        double scale = bins / (upperBound - lowerBound);
+
+        for (int i = slice.start + fieldOffset; i < slice.end; i += recordLength) {
+            double value = RawValues.getDouble(buffer, i, type);
+            if (!(value >= lowerBound)) {
+                counts[bins]++;
+            } else if (value > upperBound) {
+                counts[bins + 1]++;
+            } else {
+                counts[Math.min((int) ((value - lowerBound) * scale), lastBin)]++;
+            }
+        }
+    }
+
+    private List<Slice> slices(ByteBuffer buffer) {
+        List<Slice> slices = new ArrayList<>();
+        addSlices(buffer, buffer.position(), (buffer.limit() - buffer.position()) / recordLength, slices);
+        return slices;
+    }
+
+    private List<Slice> slices(MappedRecordFile file) {
+        if (file.getRecordLength() != recordLength) {
+            throw new InvalidParameterException("File record length does not match the template");
+        }
+        List<Slice> slices = new ArrayList<>();
+        for (int i = 0; i < file.getWindowCount(); i++) {
+            ByteBuffer window = file.window(i);
+            addSlices(window, 0, window.limit() / recordLength, slices);
+        }
+        return slices;
+    }
+
+    private void addSlices(ByteBuffer buffer, int start, int records, List<Slice> slices) {
+        int maxSlices = ForkJoinPool.getCommonPoolParallelism() * SLICES_PER_THREAD;
+        int sliceCount = Math.max(1, Math.min(maxSlices, records / MIN_RECORDS_PER_SLICE));
+        int perSlice = records / sliceCount;
+        int extra = records % sliceCount;
+
+        int from = start;
+        for (int i = 0; i < sliceCount; i++) {
+            int sliceRecords = perSlice + (i < extra ? 1 : 0);
+            int to = from + sliceRecords * recordLength;
+            // Each slice gets its own view, set to the buffer byte order
+            slices.add(new Slice(buffer.duplicate().order(buffer.order()), from, to));
+            from = to;
+        }
+    }
+
+    private static final class Slice {
+
+        final ByteBuffer buffer;
+        // Index of the first record and index right after the last record
+        final int start;
+        final int end;
+
+        Slice(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.nikolov.utilslib.bytes.aggregate;
+
+import com.nikolov.utilslib.bytes.RawValues;
+import com.nikolov.utilslib.primitives.PrimitiveType;
+
+import java.math.BigInteger;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+
+/**
+ * Count, sum, minimum and maximum of a numeric field, computed by {@link FieldAggregator}.
+ * <p>
+ * Integral fields are summed exactly (in 128 bits) and unsigned fields are compared as unsigned.
+ * Minimum and maximum are returned as the same Java types the {@link com.nikolov.utilslib.bytes.FromBytesTranslator}
+ * getters produce for the field type. Floating point NaN values are counted and make the sum NaN,
+ * but are left out of the minimum and maximum; if every value is NaN, the minimum and maximum are NaN.
+ */
+public final class FieldStatistics {
+
+    private final PrimitiveType type;
+    private final long count;
+    private final boolean floating;
+    private final long longMin;
+    private final long longMax;
+    private final long sumHigh;
+    private final long sumLow;
+    private final double doubleMin;
+    private final double doubleMax;
+    private final double doubleSum;
+
+    FieldStatistics(PrimitiveType type, long count, long longMin, long longMax, long sumHigh, long sumLow) {
+        this.type = type;
+        this.count = count;
+        this.floating = false;
+        this.longMin = longMin;
+        this.longMax = longMax;
+        this.sumHigh = sumHigh;
+        this.sumLow = sumLow;
+        this.doubleMin = 0;
+        this.doubleMax = 0;
+        this.doubleSum = 0;
+    }
+
+    FieldStatistics(PrimitiveType type, long count, double doubleMin, double doubleMax, double doubleSum) {
+        this.type = type;
+        this.count = count;
+        this.floating = true;
+        this.longMin = 0;
+        this.longMax = 0;
+        this.sumHigh = 0;
+        this.sumLow = 0;
+        this.doubleMin = doubleMin;
+        this.doubleMax = doubleMax;
+        this.doubleSum = doubleSum;
+    }
+
+    public PrimitiveType getPrimitiveType() {
+        return type;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return smallest value, or null if there were no values
+     */
+    public Number getMin() {
+        return count == 0 ? null : toNumber(longMin, onlyNaN() ? Double.NaN : doubleMin);
+    }
+
+    /**
+     * @return largest value, or null if there were no values
+     */
+    public Number getMax() {
+        return count == 0 ? null : toNumber(longMax, onlyNaN() ? Double.NaN : doubleMax);
+    }
+
+    /**
+     * @return exact sum as a BigInteger for integral fields, or a Double for floating point fields
+     */
+    public Number getSum() {
+        if (floating) {
+            return doubleSum;
+        }
+        return BigInteger.valueOf(sumHigh).shiftLeft(64).add(new BigInteger(Long.toUnsignedString(sumLow)));
+    }
+
+    /**
+     * @return arithmetic mean, or NaN if there were no values
+     */
+    public double getAverage() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (floating) {
+            return doubleSum / count;
+        }
+        if (sumHigh == (sumLow >> 63)) {
+            // The sum fits in a long
+            return (double) sumLow / count;
+        }
+        return ((BigInteger) getSum()).doubleValue() / count;
+    }
+
+    /**
+     * The minimum and maximum start at positive and negative infinity, so they stay crossed
+     * only if no value other than NaN was seen.
+     */
+    private boolean onlyNaN() {
+        return floating && doubleMin > doubleMax;
+    }
+
+    private Number toNumber(long longValue, double doubleValue) {
+        if (type.isOfType(DOUBLE)) {
+            return doubleValue;
+        } else if (type.isOfType(FLOAT)) {
+            return (float) doubleValue;
+        } else if (type.isOfType(INT8)) {
+            return (byte) longValue;
+        } else if (type.isOfType(INT16) || type.isOfType(UINT8)) {
+            return (short) longValue;
+        } else if (type.isOfType(INT32) || type.isOfType(UINT16)) {
+            return (int) longValue;
+        } else if (type.isOfType(UINT64)) {
+            return new BigInteger(Long.toUnsignedString(longValue));
+        }
+        return longValue;
+    }
+
+    @Override
+    public String toString() {
+        return "FieldStatistics{count=" + count + ", min=" + getMin() + ", max=" + getMax()
+                + ", sum=" + getSum() + ", average=" + getAverage() + '}';
+    }
+
+    /**
+     * Mutable per task state. Values are fed as raw longs for integral types and as doubles otherwise.
+     */
+    static final class Accumulator {
+
+        private final PrimitiveType type;
+        private final boolean floating;
+        private final boolean unsigned64;
+
+        long count;
+        long longMin;
+        long longMax;
+        long sumHigh;
+        long sumLow;
+        double doubleMin = Double.POSITIVE_INFINITY;
+        double doubleMax = Double.NEGATIVE_INFINITY;
+        double doubleSum;
+
+        Accumulator(PrimitiveType type) {
+            this.type = type;
+            this.floating = !RawValues.isIntegral(type);
+            this.unsigned64 = type.isOfType(UINT64);
+            this.longMin = unsigned64 ? -1L : Long.MAX_VALUE;
+            this.longMax = unsigned64 ? 0L : Long.MIN_VALUE;
+        }
+
+        boolean isFloating() {
+            return floating;
+        }
+
+        boolean isUnsigned64() {
+            return unsigned64;
+        }
+
+        void merge(Accumulator other) {
+            count += other.count;
+            if (floating) {
+                doubleMin = Math.min(doubleMin, other.doubleMin);
+                doubleMax = Math.max(doubleMax, other.doubleMax);
+                doubleSum += other.doubleSum;
+                return;
+            }
+            if (unsigned64) {
+                longMin = Long.compareUnsigned(other.longMin, longMin) < 0 ? other.longMin : longMin;
+                longMax = Long.compareUnsigned(other.longMax, longMax) > 0 ? other.longMax : longMax;
+            } else {
+                longMin = Math.min(longMin, other.longMin);
+                longMax = Math.max(longMax, other.longMax);
+            }
+            long low = sumLow + other.sumLow;
+            sumHigh += other.sumHigh + (Long.compareUnsigned(low, sumLow) < 0 ? 1 : 0);
+            sumLow = low;
+        }
+
+        FieldStatistics toStatistics() {
+            if (floating) {
+                return new FieldStatistics(type, count, doubleMin, doubleMax, doubleSum);
+            }
+            return new FieldStatistics(type, count, longMin, longMax, sumHigh, sumLow);
+        }
+    }
+}
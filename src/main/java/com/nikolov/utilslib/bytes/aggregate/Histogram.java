@@ -0,0 +1,72 @@
+package com.nikolov.utilslib.bytes.aggregate;
+
+/**
+ * Equal width histogram of a numeric field, computed by {@link FieldAggregator}.
+ * Bins cover the range from the lower to the upper bound, both inclusive. Values outside
+ * the range are counted separately; NaN values are counted as underflow.
+ */
+public final class Histogram {
+
+    private final double lowerBound;
+    private final double upperBound;
+    private final long[] counts;
+    private final long underflow;
+    private final long overflow;
+
+    Histogram(double lowerBound, double upperBound, long[] counts, long underflow, long overflow) {
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.counts = counts;
+        this.underflow = underflow;
+        this.overflow = overflow;
+    }
+
+    public int getBinCount() {
+        return counts.length;
+    }
+
+    /**
+     * @param bin bin number
+     * @return number of values in the bin
+     */
+    public long getCount(int bin) {
+        return counts[bin];
+    }
+
+    /**
+     * @param bin bin number
+     * @return smallest value that falls in the bin
+     */
+    public double getBinLowerBound(int bin) {
+        return lowerBound + (upperBound - lowerBound) * bin / counts.length;
+    }
+
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * @return number of values below the lower bound, and NaN values
+     */
+    public long getUnderflow() {
+        return underflow;
+    }
+
+    /**
+     * @return number of values above the upper bound
+     */
+    public long getOverflow() {
+        return overflow;
+    }
+
+    /**
+     * @return copy of all bin counts
+     */
+    public long[] getCounts() {
+        return counts.clone();
+    }
+}
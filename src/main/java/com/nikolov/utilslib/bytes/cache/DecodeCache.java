@@ -0,0 +1,158 @@
+package com.nikolov.utilslib.bytes.cache;
+
+import com.nikolov.utilslib.bytes.FromBytesTranslator;
+import com.nikolov.utilslib.primitives.EncodedColumnValue;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.nio.ByteOrder;
+import java.security.InvalidParameterException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of decoded payloads, for feeds that repeat byte identical messages such as heartbeats
+ * and reference data snapshots. A payload that was decoded before with the same template is not decoded again;
+ * its earlier {@link DecodedRecord} is returned.
+ * <p>
+ * Entries are keyed on a fast hash of the payload bytes and the identity of the template, and a hit is
+ * confirmed by comparing the bytes. The least recently used entries are evicted once either the number of
+ * entries or the total size of the cached payloads goes over its limit. A template must keep its layout while
+ * it is used with a cache.
+ * <p>
+ * Instances are not thread safe.
+ */
+public class DecodeCache {
+
+    private final FromBytesTranslator translator = new FromBytesTranslator();
+    private final int maxEntries;
+    private final long maxPayloadBytes;
+    private final ByteOrder order;
+    private final LinkedHashMap<PayloadKey, DecodedRecord> entries;
+
+    private long payloadBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxEntries      largest number of cached payloads
+     * @param maxPayloadBytes largest total size of the cached payloads
+     * @param order           byte order of the payloads
+     */
+    public DecodeCache(int maxEntries, long maxPayloadBytes, ByteOrder order) {
+        if (maxEntries <= 0 || maxPayloadBytes <= 0) {
+            throw new InvalidParameterException("Cache limits must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxPayloadBytes = maxPayloadBytes;
+        this.order = order;
+        // Access order makes iteration go from the least to the most recently used entry
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public DecodeCache(int maxEntries) {
+        this(maxEntries, Long.MAX_VALUE, ByteOrder.BIG_ENDIAN);
+    }
+
+    public DecodedRecord decode(byte[] payload, PrimitiveValue[] template) {
+        return decode(payload, 0, payload.length, template);
+    }
+
+    /**
+     * Returns the decoded values of the payload, decoding it with the template only on a miss.
+     * On a hit the template is not touched; use {@link DecodedRecord#copyInto} to fill it.
+     *
+     * @param payload array with the payload
+     * @param offset  index of the payload in the array
+     * @param length  payload length
+     * @param template template to decode with
+     * @return decoded values
+     */
+    public DecodedRecord decode(byte[] payload, int offset, int length, PrimitiveValue[] template) {
+        if (offset < 0 || length < 0 || offset > payload.length - length) {
+            throw new ArrayIndexOutOfBoundsException("Payload is out of the array");
+        }
+
+        PayloadKey probe = new PayloadKey(payload, offset, length, template);
+        DecodedRecord record = entries.get(probe);
+        if (record != null) {
+            hits++;
+            return record;
+        }
+
+        misses++;
+        // A hit needs an entry of the same template, so checking on a miss covers every template in use
+        assertFixedLayout(template);
+        PayloadKey key = probe.copy();
+        // Decode from the copy, so fields can not be read past the payload end
+        translator.wrap(key.getBytes(), order);
+        translator.resetBufferPositionIndex();
+        translator.processTemplatedValues(template);
+        record = DecodedRecord.of(template);
+
+        entries.put(key, record);
+        payloadBytes += key.getLength();
+        evict();
+        return record;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return share of lookups that were hits, 0 before the first lookup
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return total size of the cached payloads in bytes
+     */
+    public long getPayloadBytes() {
+        return payloadBytes;
+    }
+
+    /**
+     * Removes all entries. Statistics are kept.
+     */
+    public void clear() {
+        entries.clear();
+        payloadBytes = 0;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<PayloadKey, DecodedRecord>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || payloadBytes > maxPayloadBytes) && eldest.hasNext()) {
+            payloadBytes -= eldest.next().getKey().getLength();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Records are cached by their payload bytes, which only identify the values for fields of a fixed length.
+     */
+    private static void assertFixedLayout(PrimitiveValue[] template) {
+        for (int i = 0; i < template.length; i++) {
+            if (template[i] instanceof EncodedColumnValue) {
+                throw new InvalidParameterException("Field " + i + " has a variable length and can not be cached");
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.nikolov.utilslib.bytes.cache;
+
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.io.Serializable;
+import java.security.InvalidParameterException;
+
+/**
+ * Immutable snapshot of the values of a decoded template. Array values are copied in and out,
+ * so a record can be handed out from a {@link DecodeCache} any number of times.
+ */
+public final class DecodedRecord {
+
+    private final Serializable[] values;
+
+    private DecodedRecord(Serializable[] values) {
+        this.values = values;
+    }
+
+    /**
+     * @param template decoded template
+     * @return snapshot of its values
+     */
+    static DecodedRecord of(PrimitiveValue[] template) {
+        Serializable[] values = new Serializable[template.length];
+        for (int i = 0; i < template.length; i++) {
+            values[i] = copy(template[i].getValue());
+        }
+        return new DecodedRecord(values);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * @param i field index
+     * @return value of the field, as the template value returned it; arrays are copies
+     */
+    public Serializable get(int i) {
+        return copy(values[i]);
+    }
+
+    /**
+     * Sets the values to a template of the same layout as the decoded one.
+     *
+     * @param template template to fill
+     */
+    @SuppressWarnings("unchecked")
+    public void copyInto(PrimitiveValue[] template) {
+        if (template.length != values.length) {
+            throw new InvalidParameterException("Template does not match the record");
+        }
+        for (int i = 0; i < values.length; i++) {
+            template[i].setValue(copy(values[i]));
+        }
+    }
+
+    private static Serializable copy(Serializable value) {
+        if (value instanceof Object[]) {
+            return ((Object[]) value).clone();
+        } else if (value instanceof long[]) {
+            return ((long[]) value).clone();
+        }
+        return value;
+    }
+}
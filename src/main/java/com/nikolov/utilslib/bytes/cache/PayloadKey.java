@@ -0,0 +1,100 @@
+package com.nikolov.utilslib.bytes.cache;
+
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Cache key: the payload bytes and the identity of the template they were decoded with.
+ * Lookups use a key over the caller's array; stored keys own a copy of the bytes.
+ */
+final class PayloadKey {
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+    private final PrimitiveValue[] template;
+    private final int hash;
+
+    PayloadKey(byte[] bytes, int offset, int length, PrimitiveValue[] template) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        this.template = template;
+        this.hash = (int) (hash(bytes, offset, length) ^ System.identityHashCode(template));
+    }
+
+    private PayloadKey(byte[] bytes, PrimitiveValue[] template, int hash) {
+        this.bytes = bytes;
+        this.offset = 0;
+        this.length = bytes.length;
+        this.template = template;
+        this.hash = hash;
+    }
+
+    /**
+     * @return key with its own copy of the payload bytes
+     */
+    PayloadKey copy() {
+        byte[] copy = new byte[length];
+        System.arraycopy(bytes, offset, copy, 0, length);
+        return new PayloadKey(copy, template, hash);
+    }
+
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PayloadKey)) {
+            return false;
+        }
+        PayloadKey other = (PayloadKey) o;
+        if (hash != other.hash || length != other.length || template != other.template) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (bytes[offset + i] != other.bytes[other.offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hashes 8 bytes per step, with a final avalanche so every input bit affects the low bits used by the map.
+     */
+    static long hash(byte[] bytes, int offset, int length) {
+        ByteBuffer view = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        long h = length * PRIME_1;
+        int i = offset;
+        int end = offset + length;
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            h = Long.rotateLeft(h ^ (view.getLong(i) * PRIME_2), 31) * PRIME_1;
+        }
+        for (; i < end; i++) {
+            h = Long.rotateLeft(h ^ ((bytes[i] & 0xFFL) * PRIME_2), 11) * PRIME_1;
+        }
+        h ^= h >>> 33;
+        h *= PRIME_2;
+        h ^= h >>> 29;
+        return h;
+    }
+}
@@ -0,0 +1,79 @@
+package com.nikolov.utilslib.bytes.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Packs unsigned values of a fixed bit width back to back into 64 bit words, lowest bits first.
+ */
+final class BitPacking {
+
+    private BitPacking() {
+    }
+
+    /**
+     * @param or all values or-ed together
+     * @return number of bits needed for the largest of the values
+     */
+    static int bitWidth(long or) {
+        return Long.SIZE - Long.numberOfLeadingZeros(or);
+    }
+
+    static int words(int count, int bitWidth) {
+        return (int) (((long) count * bitWidth + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * Packs the values into words written to the buffer at the index, in the buffer byte order.
+     */
+    static void pack(long[] values, int offset, int count, int bitWidth, ByteBuffer buffer, int index) {
+        int words = words(count, bitWidth);
+        long word = 0;
+        int wordIndex = 0;
+        int used = 0;
+        for (int i = offset; i < offset + count; i++) {
+            long value = values[i];
+            word |= value << used;
+            used += bitWidth;
+            if (used >= Long.SIZE) {
+                buffer.putLong(index + wordIndex++ * Long.BYTES, word);
+                used -= Long.SIZE;
+                // The bits of the value that did not fit, if any
+                word = used == 0 ? 0 : value >>> (bitWidth - used);
+            }
+        }
+        if (wordIndex < words) {
+            buffer.putLong(index + wordIndex * Long.BYTES, word);
+        }
+    }
+
+    /**
+     * Unpacks count values from the words at the index of the buffer.
+     */
+    static void unpack(ByteBuffer buffer, int index, int bitWidth, long[] out, int offset, int count) {
+        if (bitWidth == 0) {
+            for (int i = offset; i < offset + count; i++) {
+                out[i] = 0;
+            }
+            return;
+        }
+
+        long mask = bitWidth == Long.SIZE ? -1L : (1L << bitWidth) - 1;
+        long word = 0;
+        int available = 0;
+        int wordIndex = 0;
+        for (int i = offset; i < offset + count; i++) {
+            if (available >= bitWidth) {
+                out[i] = word & mask;
+                word = bitWidth == Long.SIZE ? 0 : word >>> bitWidth;
+                available -= bitWidth;
+            } else {
+                // Take the low bits left in the current word and the rest from the next one
+                long next = buffer.getLong(index + wordIndex++ * Long.BYTES);
+                out[i] = (word | (next << available)) & mask;
+                int fromNext = bitWidth - available;
+                word = fromNext == Long.SIZE ? 0 : next >>> fromNext;
+                available = Long.SIZE - fromNext;
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.nikolov.utilslib.bytes.codec;
+
+import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
+
+import java.nio.ByteBuffer;
+import java.security.InvalidParameterException;
+
+/**
+ * Encodes and decodes blocks of integers with a {@link ColumnEncoding}, e.g. a column of timestamps or
+ * sequence numbers. Values are turned into small unsigned numbers (zigzag encoded differences for the delta
+ * encodings, offsets from the minimum for frame of reference) that are bit packed at the width of the largest one.
+ * <p>
+ * A block is written in the byte order of the buffer:
+ * <pre>
+ * offset  0: encoding id (1 byte)
+ * offset  1: bit width (1 byte)
+ * offset  2: reserved (2 bytes)
+ * offset  4: number of values (int)
+ * offset  8: first value, or the minimum for frame of reference (long)
+ * offset 16: first difference for delta of delta, otherwise 0 (long)
+ * offset 24: packed values as 64 bit words
+ * </pre>
+ * Decoding unpacks a whole block in one pass and then restores the values in a second, branch free pass.
+ */
+public abstract class ColumnCodec {
+
+    public static final int HEADER_BYTES = 24;
+
+    private ColumnCodec() {
+    }
+
+    /**
+     * @param encoding encoding
+     * @param values   values to encode
+     * @param offset   first index in values
+     * @param count    number of values
+     * @return length of the encoded block in bytes
+     */
+    public static int encodedLength(ColumnEncoding encoding, long[] values, int offset, int count) {
+        assertRange(values.length, offset, count);
+        long[] packed = new long[count];
+        int packedCount = prepare(encoding, values, offset, count, packed, new long[2]);
+        return HEADER_BYTES + BitPacking.words(packedCount, bitWidth(packed, packedCount)) * Long.BYTES;
+    }
+
+    /**
+     * Writes an encoded block at the buffer position and moves the position past it.
+     *
+     * @param encoding encoding
+     * @param values   values to encode
+     * @param offset   first index in values
+     * @param count    number of values
+     * @param out      buffer to write to
+     * @return length of the encoded block in bytes
+     */
+    public static int encode(ColumnEncoding encoding, long[] values, int offset, int count, ByteBuffer out) {
+        assertRange(values.length, offset, count);
+        long[] packed = new long[count];
+        long[] header = new long[2];
+        int packedCount = prepare(encoding, values, offset, count, packed, header);
+        int bitWidth = bitWidth(packed, packedCount);
+        int length = HEADER_BYTES + BitPacking.words(packedCount, bitWidth) * Long.BYTES;
+        if (out.remaining() < length) {
+            throw new UnexpectedArrayLengthException();
+        }
+
+        int index = out.position();
+        out.put(index, (byte) encoding.getId())
+                .put(index + 1, (byte) bitWidth)
+                .putShort(index + 2, (short) 0)
+                .putInt(index + 4, count)
+                .putLong(index + 8, header[0])
+                .putLong(index + 16, header[1]);
+        BitPacking.pack(packed, 0, packedCount, bitWidth, out, index + HEADER_BYTES);
+        out.position(index + length);
+        return length;
+    }
+
+    public static int encode(ColumnEncoding encoding, int[] values, int offset, int count, ByteBuffer out) {
+        assertRange(values.length, offset, count);
+        long[] widened = new long[count];
+        for (int i = 0; i < count; i++) {
+            widened[i] = values[offset + i];
+        }
+        return encode(encoding, widened, 0, count, out);
+    }
+
+    /**
+     * @param buffer buffer with a block
+     * @param index  absolute index of the block
+     * @return number of values in the block
+     */
+    public static int valueCount(ByteBuffer buffer, int index) {
+        assertReadable(buffer, index, HEADER_BYTES);
+        return buffer.getInt(index + 4);
+    }
+
+    /**
+     * @param buffer buffer with a block
+     * @param index  absolute index of the block
+     * @return length of the block in bytes
+     * @throws UnexpectedArrayLengthException if the block does not fit in the buffer
+     */
+    public static int blockLength(ByteBuffer buffer, int index) {
+        return blockLength(buffer, index, (long) buffer.limit() - index);
+    }
+
+    /**
+     * Same as {@link #blockLength(ByteBuffer, int)} for a buffer that may only hold the header,
+     * when the rest of the block is read from elsewhere.
+     *
+     * @param buffer    buffer with a block header
+     * @param index     absolute index of the header
+     * @param available number of bytes from the header on that the block may take
+     * @return length of the block in bytes
+     * @throws UnexpectedArrayLengthException if the block is longer than available
+     */
+    public static int blockLength(ByteBuffer buffer, int index, long available) {
+        assertReadable(buffer, index, HEADER_BYTES);
+        ColumnEncoding encoding = ColumnEncoding.of(buffer.get(index));
+        int bitWidth = buffer.get(index + 1);
+        int count = buffer.getInt(index + 4);
+        if (bitWidth < 0 || bitWidth > Long.SIZE || count < 0) {
+            throw new InvalidParameterException("Malformed column block");
+        }
+        long length = HEADER_BYTES + (long) BitPacking.words(packedCount(encoding, count), bitWidth) * Long.BYTES;
+        if (length > available) {
+            throw new UnexpectedArrayLengthException();
+        }
+        return (int) length;
+    }
+
+    /**
+     * Decodes a block into the array.
+     *
+     * @param buffer buffer with a block
+     * @param index  absolute index of the block
+     * @param out    where to put the values, must have room for all of them
+     * @param offset first index in out
+     * @return number of decoded values
+     */
+    public static int decode(ByteBuffer buffer, int index, long[] out, int offset) {
+        blockLength(buffer, index);
+        ColumnEncoding encoding = ColumnEncoding.of(buffer.get(index));
+        int bitWidth = buffer.get(index + 1);
+        int count = buffer.getInt(index + 4);
+        assertRange(out.length, offset, count);
+        if (count == 0) {
+            return 0;
+        }
+
+        long first = buffer.getLong(index + 8);
+        int packed = index + HEADER_BYTES;
+        int end = offset + count;
+        switch (encoding) {
+            case FRAME_OF_REFERENCE:
+                BitPacking.unpack(buffer, packed, bitWidth, out, offset, count);
+                for (int i = offset; i < end; i++) {
+                    out[i] += first;
+                }
+                break;
+            case DELTA:
+                out[offset] = first;
+                BitPacking.unpack(buffer, packed, bitWidth, out, offset + 1, count - 1);
+                for (int i = offset + 1; i < end; i++) {
+                    out[i] = out[i - 1] + unzigzag(out[i]);
+                }
+                break;
+            case DELTA_OF_DELTA:
+                out[offset] = first;
+                if (count > 1) {
+                    long delta = buffer.getLong(index + 16);
+                    out[offset + 1] = first + delta;
+                    BitPacking.unpack(buffer, packed, bitWidth, out, offset + 2, count - 2);
+                    for (int i = offset + 2; i < end; i++) {
+                        delta += unzigzag(out[i]);
+                        out[i] = out[i - 1] + delta;
+                    }
+                }
+                break;
+            default:
+                throw new InvalidParameterException("Unknown column encoding");
+        }
+        return count;
+    }
+
+    /**
+     * Decodes a block of values that fit in an int into the array. Wider values are truncated.
+     *
+     * @param buffer buffer with a block
+     * @param index  absolute index of the block
+     * @param out    where to put the values, must have room for all of them
+     * @param offset first index in out
+     * @param work   scratch array reused between calls, or null; a larger one is made if it is too small
+     * @return number of decoded values
+     */
+    public static int decode(ByteBuffer buffer, int index, int[] out, int offset, long[] work) {
+        // Validate the whole block before sizing the work array from its count
+        blockLength(buffer, index);
+        int count = valueCount(buffer, index);
+        if (work == null || work.length < count) {
+            work = new long[count];
+        }
+        decode(buffer, index, work, 0);
+        assertRange(out.length, offset, count);
+        for (int i = 0; i < count; i++) {
+            out[offset + i] = (int) work[i];
+        }
+        return count;
+    }
+
+    /**
+     * Turns the values into the unsigned numbers that get packed.
+     *
+     * @param header gets the first value (or minimum) and the first difference
+     * @return number of packed values
+     */
+    private static int prepare(ColumnEncoding encoding, long[] values, int offset, int count, long[] packed,
+                               long[] header) {
+        if (count == 0) {
+            return 0;
+        }
+        int end = offset + count;
+        switch (encoding) {
+            case FRAME_OF_REFERENCE:
+                long min = values[offset];
+                for (int i = offset + 1; i < end; i++) {
+                    min = Math.min(min, values[i]);
+                }
+                header[0] = min;
+                for (int i = 0; i < count; i++) {
+                    packed[i] = values[offset + i] - min;
+                }
+                return count;
+            case DELTA:
+                header[0] = values[offset];
+                for (int i = offset + 1; i < end; i++) {
+                    packed[i - offset - 1] = zigzag(values[i] - values[i - 1]);
+                }
+                return count - 1;
+            case DELTA_OF_DELTA:
+                header[0] = values[offset];
+                if (count == 1) {
+                    return 0;
+                }
+                long delta = values[offset + 1] - values[offset];
+                header[1] = delta;
+                for (int i = offset + 2; i < end; i++) {
+                    long next = values[i] - values[i - 1];
+                    packed[i - offset - 2] = zigzag(next - delta);
+                    delta = next;
+                }
+                return count - 2;
+            default:
+                throw new InvalidParameterException("Unknown column encoding");
+        }
+    }
+
+    private static int packedCount(ColumnEncoding encoding, int count) {
+        switch (encoding) {
+            case DELTA:
+                return Math.max(0, count - 1);
+            case DELTA_OF_DELTA:
+                return Math.max(0, count - 2);
+            default:
+                return count;
+        }
+    }
+
+    private static int bitWidth(long[] packed, int count) {
+        long or = 0;
+        for (int i = 0; i < count; i++) {
+            or |= packed[i];
+        }
+        return BitPacking.bitWidth(or);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void assertRange(int length, int offset, int count) {
+        if (offset < 0 || count < 0 || offset > length - count) {
+            throw new ArrayIndexOutOfBoundsException("Range " + offset + " + " + count + " is out of " + length);
+        }
+    }
+
+    private static void assertReadable(ByteBuffer buffer, int index, int length) {
+        if (index < 0 || index > buffer.limit() - length) {
+            throw new UnexpectedArrayLengthException();
+        }
+    }
+}
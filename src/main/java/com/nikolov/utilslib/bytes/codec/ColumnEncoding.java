@@ -0,0 +1,44 @@
+package com.nikolov.utilslib.bytes.codec;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Encodings of a block of integers, see {@link ColumnCodec}.
+ */
+public enum ColumnEncoding {
+
+    /**
+     * First value, then the differences between neighbours. Suits sequence numbers and ordered timestamps.
+     */
+    DELTA(1),
+
+    /**
+     * First value and first difference, then the changes of the differences.
+     * Suits timestamps taken at a nearly fixed rate, where most entries are 0.
+     */
+    DELTA_OF_DELTA(2),
+
+    /**
+     * Smallest value (the frame of reference), then every value minus it. Suits values in a narrow range.
+     */
+    FRAME_OF_REFERENCE(3);
+
+    private final int id;
+
+    ColumnEncoding(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    static ColumnEncoding of(int id) {
+        for (ColumnEncoding encoding : values()) {
+            if (encoding.id == id) {
+                return encoding;
+            }
+        }
+        throw new InvalidParameterException("Unknown column encoding " + id);
+    }
+}
@@ -0,0 +1,43 @@
+package com.nikolov.utilslib.bytes.columnar;
+
+import java.security.InvalidParameterException;
+
+/**
+ * What a column of a columnar snapshot holds.
+ */
+public enum ColumnKind {
+
+    /**
+     * Numbers of one {@link com.nikolov.utilslib.primitives.PrimitiveType}, possibly decimal mantissas with a scale.
+     */
+    NUMBER(1),
+
+    /**
+     * Fixed width strings.
+     */
+    STRING(2),
+
+    /**
+     * Fixed width byte arrays.
+     */
+    BYTES(3);
+
+    private final int id;
+
+    ColumnKind(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    static ColumnKind of(int id) {
+        for (ColumnKind kind : values()) {
+            if (kind.id == id) {
+                return kind;
+            }
+        }
+        throw new InvalidParameterException("Unknown column kind " + id);
+    }
+}
@@ -0,0 +1,228 @@
+package com.nikolov.utilslib.bytes.columnar;
+
+import com.nikolov.utilslib.bytes.RawValues;
+import com.nikolov.utilslib.primitives.PrimitiveType;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.InvalidParameterException;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+
+/**
+ * Read only memory mapping of a columnar snapshot written by {@link ColumnarWriter}. Opening only reads the
+ * header; each column is mapped as is and handed out as a typed buffer view, so nothing is parsed or copied.
+ * Every column is mapped on its own, so only a single column is limited to 2 GB, not the file.
+ * <p>
+ * Views are independent duplicates and can be read from many threads.
+ */
+public final class ColumnarFile {
+
+    private static final PrimitiveType[] TYPES = {null, INT8, INT16, INT32, INT64, UINT8, UINT16, UINT32, UINT64,
+            FLOAT, DOUBLE};
+
+    private final long rowCount;
+    private final ColumnKind[] kinds;
+    private final PrimitiveType[] types;
+    private final int[] scales;
+    private final int[] widths;
+    private final MappedByteBuffer[] columns;
+
+    private ColumnarFile(long rowCount, ColumnKind[] kinds, PrimitiveType[] types, int[] scales, int[] widths,
+                         MappedByteBuffer[] columns) {
+        this.rowCount = rowCount;
+        this.kinds = kinds;
+        this.types = types;
+        this.scales = scales;
+        this.widths = widths;
+        this.columns = columns;
+    }
+
+    /**
+     * Maps a snapshot file.
+     *
+     * @param file snapshot written by {@link ColumnarWriter#write(Path)}
+     * @return mapped snapshot
+     * @throws IOException if the file can not be mapped or is not a snapshot
+     */
+    public static ColumnarFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(size, ColumnarWriter.HEADER_BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.remaining() < ColumnarWriter.HEADER_BYTES || header.getInt() != ColumnarWriter.MAGIC
+                    || header.get() != ColumnarWriter.VERSION) {
+                throw new IOException("Not a columnar snapshot: " + file);
+            }
+            header.position(8);
+            int count = header.getInt();
+            long rowCount = header.getLong();
+            if (count < 0 || rowCount < 0 || ColumnarWriter.HEADER_BYTES + (long) count * ColumnarWriter.COLUMN_BYTES > size) {
+                throw new IOException("Corrupted columnar snapshot: " + file);
+            }
+
+            ByteBuffer schema = channel.map(FileChannel.MapMode.READ_ONLY, ColumnarWriter.HEADER_BYTES,
+                    (long) count * ColumnarWriter.COLUMN_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            ColumnKind[] kinds = new ColumnKind[count];
+            PrimitiveType[] types = new PrimitiveType[count];
+            int[] scales = new int[count];
+            int[] widths = new int[count];
+            MappedByteBuffer[] columns = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                int kind = schema.get();
+                int type = schema.get();
+                scales[i] = schema.get();
+                schema.get();
+                widths[i] = schema.getInt();
+                long offset = schema.getLong();
+                long length;
+                try {
+                    kinds[i] = ColumnKind.of(kind);
+                    length = Math.multiplyExact(rowCount, widths[i]);
+                } catch (InvalidParameterException | ArithmeticException e) {
+                    throw new IOException("Corrupted columnar snapshot: " + file, e);
+                }
+                if (kinds[i] == ColumnKind.NUMBER) {
+                    if (type <= 0 || type >= TYPES.length || TYPES[type].getBytesCount() != widths[i]) {
+                        throw new IOException("Corrupted columnar snapshot: " + file);
+                    }
+                    types[i] = TYPES[type];
+                }
+                if (widths[i] < 0 || offset < 0 || length > size - offset || length > Integer.MAX_VALUE) {
+                    throw new IOException("Corrupted columnar snapshot: " + file);
+                }
+                columns[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                columns[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new ColumnarFile(rowCount, kinds, types, scales, widths, columns);
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return kinds.length;
+    }
+
+    public ColumnKind getKind(int column) {
+        return kinds[column];
+    }
+
+    /**
+     * @return type of a number column, null for other columns
+     */
+    public PrimitiveType getPrimitiveType(int column) {
+        return types[column];
+    }
+
+    /**
+     * @return scale of a decimal column, 0 for other columns
+     */
+    public int getScale(int column) {
+        return scales[column];
+    }
+
+    /**
+     * @return bytes per value
+     */
+    public int getWidth(int column) {
+        return widths[column];
+    }
+
+    /**
+     * @return the raw little endian bytes of any column
+     */
+    public ByteBuffer bytes(int column) {
+        return view(column);
+    }
+
+    /**
+     * @return values of an INT16 or UINT16 column; UINT16 values need {@code & 0xFFFF}
+     */
+    public ShortBuffer shorts(int column) {
+        assertWidth(column, Short.BYTES, false);
+        return view(column).asShortBuffer();
+    }
+
+    /**
+     * @return values of an INT32 or UINT32 column; UINT32 values need {@code & 0xFFFFFFFFL}
+     */
+    public IntBuffer ints(int column) {
+        assertWidth(column, Integer.BYTES, false);
+        return view(column).asIntBuffer();
+    }
+
+    /**
+     * @return values of an INT64 or UINT64 column, or the mantissas of a decimal column stored as them
+     */
+    public LongBuffer longs(int column) {
+        assertWidth(column, Long.BYTES, false);
+        return view(column).asLongBuffer();
+    }
+
+    public FloatBuffer floats(int column) {
+        assertWidth(column, Float.BYTES, true);
+        return view(column).asFloatBuffer();
+    }
+
+    public DoubleBuffer doubles(int column) {
+        assertWidth(column, Double.BYTES, true);
+        return view(column).asDoubleBuffer();
+    }
+
+    /**
+     * Reads one integral value like {@link RawValues#getLong}, e.g. unsigned values zero extended.
+     */
+    public long getLong(int column, long row) {
+        assertNumber(column);
+        return RawValues.getLong(columns[column], index(column, row), types[column]);
+    }
+
+    /**
+     * Reads one numeric value like {@link RawValues#getDouble}, ignoring any scale.
+     */
+    public double getDouble(int column, long row) {
+        assertNumber(column);
+        return RawValues.getDouble(columns[column], index(column, row), types[column]);
+    }
+
+    public String getString(int column, long row) {
+        if (kinds[column] != ColumnKind.STRING) {
+            throw new InvalidParameterException("Column " + column + " is not a string column");
+        }
+        byte[] bytes = new byte[widths[column]];
+        ByteBuffer view = view(column);
+        view.position(index(column, row));
+        view.get(bytes);
+        return new String(bytes);
+    }
+
+    private ByteBuffer view(int column) {
+        return columns[column].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private int index(int column, long row) {
+        if (row < 0 || row >= rowCount) {
+            throw new ArrayIndexOutOfBoundsException("Row " + row + " is out of the snapshot");
+        }
+        return (int) row * widths[column];
+    }
+
+    private void assertNumber(int column) {
+        if (kinds[column] != ColumnKind.NUMBER) {
+            throw new InvalidParameterException("Column " + column + " is not a number column");
+        }
+    }
+
+    private void assertWidth(int column, int width, boolean floating) {
+        assertNumber(column);
+        if (widths[column] != width || floating == RawValues.isIntegral(types[column])) {
+            throw new InvalidParameterException("Column " + column + " is not of the requested type");
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.nikolov.utilslib.bytes.columnar;
+
+import com.nikolov.utilslib.primitives.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.InvalidParameterException;
+import java.util.Objects;
+
+/**
+ * Collects decoded template values row by row and saves them as a columnar snapshot, which
+ * {@link ColumnarFile} maps back without parsing. The schema is derived from the template:
+ * numeric fields (including decimals, kept as mantissas with their scale) become columns of their
+ * {@link PrimitiveType}, ASCII numbers become INT64 columns, strings and byte arrays fixed width columns.
+ * Malformed ASCII numbers are not stored, a row with one is rejected.
+ * <p>
+ * The file is little endian:
+ * <pre>
+ * int  magic ("UCOL")
+ * byte version
+ * 3    reserved bytes
+ * int  column count
+ * long row count
+ * per column: byte kind, byte primitive type id (0 if not a number), byte scale, byte reserved,
+ *             int value width, long offset of the column data
+ * column data, each one starting at a multiple of 8
+ * </pre>
+ * Instances are not thread safe.
+ */
+public class ColumnarWriter {
+
+    static final int MAGIC = 0x55434F4C;
+    static final byte VERSION = 1;
+    static final int HEADER_BYTES = 20;
+    static final int COLUMN_BYTES = 16;
+
+    private final ColumnKind[] kinds;
+    private final PrimitiveType[] types;
+    private final int[] scales;
+    private final int[] widths;
+    private final ByteBuffer[] columns;
+    private long rows;
+
+    private ColumnarWriter(PrimitiveValue[] template) {
+        int count = template.length;
+        kinds = new ColumnKind[count];
+        types = new PrimitiveType[count];
+        scales = new int[count];
+        widths = new int[count];
+        columns = new ByteBuffer[count];
+
+        for (int i = 0; i < count; i++) {
+            PrimitiveValue pv = template[i];
+            if (pv instanceof AsciiIntegerValue) {
+                kinds[i] = ColumnKind.NUMBER;
+                types[i] = PrimitiveType.INT64;
+                scales[i] = ((AsciiIntegerValue) pv).getScale();
+            } else if (pv instanceof DecimalValue) {
+                kinds[i] = ColumnKind.NUMBER;
+                types[i] = ((DecimalValue) pv).getPrimitiveType();
+                scales[i] = ((DecimalValue) pv).getScale();
+            } else if (Objects.equals(pv.getType(), Number.class)) {
+                kinds[i] = ColumnKind.NUMBER;
+                types[i] = ((NumberValue) pv).getPrimitiveType();
+            } else if (Objects.equals(pv.getType(), String.class)) {
+                kinds[i] = ColumnKind.STRING;
+            } else if (Objects.equals(pv.getType(), Byte[].class)) {
+                kinds[i] = ColumnKind.BYTES;
+            } else {
+                throw new InvalidParameterException("Field " + i + " can not be stored in a column");
+            }
+            widths[i] = kinds[i] == ColumnKind.NUMBER ? types[i].getBytesCount() : pv.getBytesCount();
+            columns[i] = ByteBuffer.allocate(Math.max(widths[i], 1) * 64).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * @param template template the rows are decoded with
+     * @return writer for rows of the template
+     */
+    public static ColumnarWriter of(PrimitiveValue[] template) {
+        if (template == null || template.length == 0) {
+            throw new InvalidParameterException("Template must not be empty");
+        }
+        return new ColumnarWriter(template);
+    }
+
+    public long getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Adds the current values of a decoded template as a row.
+     *
+     * @param template template with the same layout as the one the writer was made for
+     * @throws InvalidParameterException if an ASCII number of the row is malformed, nothing is added then
+     */
+    public void append(PrimitiveValue[] template) {
+        if (template.length != kinds.length) {
+            throw new InvalidParameterException("Template does not match the writer");
+        }
+        // Checked before writing any column, so a rejected row leaves the columns aligned
+        for (int i = 0; i < template.length; i++) {
+            if (template[i] instanceof AsciiIntegerValue && !((AsciiIntegerValue) template[i]).isValid()) {
+                throw new InvalidParameterException("Field " + i + " is not a valid ASCII number");
+            }
+        }
+        for (int i = 0; i < kinds.length; i++) {
+            ByteBuffer column = ensureRoom(i);
+            switch (kinds[i]) {
+                case NUMBER:
+                    putNumber(column, types[i], template[i]);
+                    break;
+                case STRING:
+                    String s = (String) template[i].getValue();
+                    putPadded(column, s == null ? new byte[0] : s.getBytes(), widths[i]);
+                    break;
+                default:
+                    Byte[] boxed = (Byte[]) template[i].getValue();
+                    byte[] bytes = new byte[boxed == null ? 0 : boxed.length];
+                    for (int b = 0; b < bytes.length; b++) {
+                        bytes[b] = boxed[b];
+                    }
+                    putPadded(column, bytes, widths[i]);
+                    break;
+            }
+        }
+        rows++;
+    }
+
+    /**
+     * Saves the collected rows, replacing the file if it exists.
+     *
+     * @param file file to write
+     * @throws IOException if the file can not be written
+     */
+    public void write(Path file) throws IOException {
+        int count = kinds.length;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + count * COLUMN_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).put(VERSION).put(new byte[3]).putInt(count).putLong(rows);
+
+        long offset = align(header.capacity());
+        for (int i = 0; i < count; i++) {
+            header.put((byte) kinds[i].getId())
+                    .put((byte) (types[i] == null ? 0 : types[i].getId()))
+                    .put((byte) scales[i])
+                    .put((byte) 0)
+                    .putInt(widths[i])
+                    .putLong(offset);
+            offset = align(offset + columns[i].position());
+        }
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+            long position = align(header.capacity());
+            for (ByteBuffer column : columns) {
+                ByteBuffer data = column.duplicate();
+                data.flip();
+                channel.position(position);
+                writeFully(channel, data);
+                position = align(position + column.position());
+            }
+        }
+    }
+
+    private ByteBuffer ensureRoom(int column) {
+        ByteBuffer buffer = columns[column];
+        if (buffer.remaining() < widths[column]) {
+            long grown = Math.max((long) buffer.capacity() * 2, buffer.capacity() + widths[column]);
+            if (grown > Integer.MAX_VALUE - 8) {
+                throw new InvalidParameterException("Column " + column + " is larger than 2 GB");
+            }
+            ByteBuffer bigger = ByteBuffer.allocate((int) grown).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.flip();
+            bigger.put(buffer);
+            columns[column] = bigger;
+        }
+        return columns[column];
+    }
+
+    private static void putNumber(ByteBuffer column, PrimitiveType type, PrimitiveValue pv) {
+        if (pv instanceof AsciiIntegerValue) {
+            column.putLong(((AsciiIntegerValue) pv).getMantissa());
+            return;
+        }
+
+        Number value = (Number) pv.getValue();
+        switch (type.getId()) {
+            case 1: // INT8
+            case 5: // UINT8
+                column.put(value == null ? 0 : value.byteValue());
+                break;
+            case 2: // INT16
+            case 6: // UINT16
+                column.putShort(value == null ? 0 : value.shortValue());
+                break;
+            case 3: // INT32
+            case 7: // UINT32
+                column.putInt(value == null ? 0 : value.intValue());
+                break;
+            case 4: // INT64
+            case 8: // UINT64
+                // For UINT64 BigInteger.longValue() keeps the low 64 bits, which are the raw unsigned bits
+                column.putLong(value == null ? 0 : value.longValue());
+                break;
+            case 9: // FLOAT
+                column.putFloat(value == null ? 0 : value.floatValue());
+                break;
+            default: // DOUBLE
+                column.putDouble(value == null ? 0 : value.doubleValue());
+                break;
+        }
+    }
+
+    private static void putPadded(ByteBuffer column, byte[] bytes, int width) {
+        int n = Math.min(bytes.length, width);
+        column.put(bytes, 0, n);
+        for (int i = n; i < width; i++) {
+            column.put((byte) 0);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+}
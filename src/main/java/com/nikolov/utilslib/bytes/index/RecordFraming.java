@@ -0,0 +1,75 @@
+package com.nikolov.utilslib.bytes.index;
+
+import com.nikolov.utilslib.bytes.RawValues;
+import com.nikolov.utilslib.bytes.TemplateProjection;
+import com.nikolov.utilslib.primitives.PrimitiveType;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.nio.ByteBuffer;
+import java.security.InvalidParameterException;
+
+/**
+ * Rule that tells where a record ends. Used by {@link RecordIndexer} to walk a file of records.
+ */
+public interface RecordFraming {
+
+    /**
+     * Returned when there are not enough bytes before the buffer limit to tell the record length.
+     */
+    int NEED_MORE_DATA = -1;
+
+    /**
+     * Returns the length in bytes of the record starting at position.
+     *
+     * @param buffer   buffer with data; bytes up to its limit can be read
+     * @param position absolute index of the record start
+     * @return record length or {@link #NEED_MORE_DATA}
+     */
+    int recordLength(ByteBuffer buffer, int position);
+
+    /**
+     * Framing for records with a constant length.
+     *
+     * @param length record length in bytes
+     * @return framing rule
+     */
+    static RecordFraming fixed(int length) {
+        if (length <= 0) {
+            throw new InvalidParameterException("Record length must be positive");
+        }
+        return (buffer, position) -> length;
+    }
+
+    /**
+     * Framing for records described by a template, where each record is as long as the template.
+     *
+     * @param template record template
+     * @return framing rule
+     */
+    static RecordFraming fixed(PrimitiveValue[] template) {
+        return fixed(TemplateProjection.recordLength(template));
+    }
+
+    /**
+     * Framing for records that start with an integral length field.
+     * The record length is the field value plus the adjustment, e.g. pass
+     * the size of the length field if it does not count itself.
+     *
+     * @param lengthType       integral type of the length field
+     * @param lengthAdjustment bytes added to the field value
+     * @return framing rule
+     */
+    static RecordFraming lengthPrefixed(PrimitiveType lengthType, int lengthAdjustment) {
+        if (lengthType == null || !RawValues.isIntegral(lengthType)) {
+            throw new InvalidParameterException("Length field must be of integral type");
+        }
+        int prefixBytes = lengthType.getBytesCount();
+        return (buffer, position) -> {
+            if (buffer.limit() - position < prefixBytes) {
+                return NEED_MORE_DATA;
+            }
+            long length = RawValues.getLong(buffer, position, lengthType) + lengthAdjustment;
+            return length > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) length;
+        };
+    }
+}
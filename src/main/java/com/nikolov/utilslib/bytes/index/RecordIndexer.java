@@ -0,0 +1,142 @@
+package com.nikolov.utilslib.bytes.index;
+
+import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Builds a {@link RecordOffsetIndex} in a single pass over a buffer or a file of variable length records.
+ * Files are memory mapped in windows, so they can be larger than 2 GB.
+ * <p>
+ * A trailing record that is cut short is left out of the index.
+ */
+public abstract class RecordIndexer {
+
+    private static final int DEFAULT_WINDOW_BYTES = 64 * 1024 * 1024;
+
+    private RecordIndexer() {
+    }
+
+    /**
+     * Indexes the records between the buffer position and its limit. Offsets are absolute buffer indices.
+     *
+     * @param buffer  buffer with records
+     * @param framing rule that tells the record lengths
+     * @return record index
+     */
+    public static RecordOffsetIndex index(ByteBuffer buffer, RecordFraming framing) {
+        OffsetsBuilder offsets = new OffsetsBuilder();
+        int end = walk(buffer, buffer.position(), 0, framing, offsets);
+        offsets.add(end);
+        return new RecordOffsetIndex(offsets.toArray());
+    }
+
+    /**
+     * Indexes all records of a file.
+     *
+     * @param file    file with records
+     * @param order   byte order used to read length fields
+     * @param framing rule that tells the record lengths
+     * @return record index
+     * @throws IOException if the file can not be read
+     */
+    public static RecordOffsetIndex index(Path file, ByteOrder order, RecordFraming framing) throws IOException {
+        OffsetsBuilder offsets = new OffsetsBuilder();
+        long position = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int windowBytes = DEFAULT_WINDOW_BYTES;
+
+            while (position < size) {
+                long remaining = size - position;
+                int span = (int) Math.min(remaining, windowBytes);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, span);
+                window.order(order);
+
+                int end = walk(window, 0, position, framing, offsets);
+                if (end == 0) {
+                    if (span == remaining) {
+                        // Truncated last record
+                        break;
+                    }
+                    if (windowBytes == Integer.MAX_VALUE) {
+                        throw new UnexpectedArrayLengthException();
+                    }
+                    // The record does not fit in a window, retry with a bigger one
+                    windowBytes = (int) Math.min(Integer.MAX_VALUE, windowBytes * 2L);
+                }
+                position += end;
+            }
+        }
+
+        offsets.add(position);
+        return new RecordOffsetIndex(offsets.toArray());
+    }
+
+    /**
+     * Indexes all records of a file and writes the index to a sidecar file.
+     *
+     * @param file    file with records
+     * @param order   byte order used to read length fields
+     * @param framing rule that tells the record lengths
+     * @param sidecar file to write the index to
+     * @return record index
+     * @throws IOException if a file can not be read or written
+     */
+    public static RecordOffsetIndex index(Path file, ByteOrder order, RecordFraming framing, Path sidecar)
+            throws IOException {
+        RecordOffsetIndex index = index(file, order, framing);
+        index.write(sidecar);
+        return index;
+    }
+
+    /**
+     * Walks the complete records in the buffer, starting at the given index.
+     *
+     * @return index right after the last complete record
+     */
+    private static int walk(ByteBuffer buffer, int from, long base, RecordFraming framing, OffsetsBuilder offsets) {
+        int limit = buffer.limit();
+        int cursor = from;
+        while (cursor < limit) {
+            int length = framing.recordLength(buffer, cursor);
+            if (length == RecordFraming.NEED_MORE_DATA) {
+                break;
+            }
+            if (length <= 0) {
+                throw new UnexpectedArrayLengthException();
+            }
+            if (length > limit - cursor) {
+                break;
+            }
+            offsets.add(base + cursor);
+            cursor += length;
+        }
+        return cursor;
+    }
+
+    private static final class OffsetsBuilder {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.nikolov.utilslib.bytes.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+
+/**
+ * Start offsets of the records in a file or buffer, giving O(1) access to record N.
+ * <p>
+ * On disk the index is kept in a sidecar file as delta encoded (varint) offsets:
+ * <pre>
+ * int  magic ("RIDX")
+ * byte version
+ * int  record count
+ * varint * (count + 1) deltas between consecutive offsets, the last one marking the end of the final record
+ * </pre>
+ *
+ * @see RecordIndexer
+ */
+public class RecordOffsetIndex {
+
+    static final int MAGIC = 0x52494458;
+    static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 9;
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    // count + 1 entries, the last one is the end offset of the last record
+    private final long[] offsets;
+
+    RecordOffsetIndex(long[] offsets) {
+        this.offsets = offsets;
+    }
+
+    /**
+     * Loads an index from a sidecar file written by {@link #write(Path)}.
+     *
+     * @param sidecar index file
+     * @return loaded index
+     * @throws IOException if the file can not be read or is not a valid index
+     */
+    public static RecordOffsetIndex load(Path sidecar) throws IOException {
+        try (FileChannel channel = FileChannel.open(sidecar, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+                throw new IOException("Not a record offset index: " + sidecar);
+            }
+            int count = buffer.getInt();
+            // Every offset takes at least one byte, so a larger count can only come from a corrupted header
+            if (count < 0 || count >= buffer.remaining()) {
+                throw new IOException("Corrupted record offset index: " + sidecar);
+            }
+
+            long[] offsets = new long[count + 1];
+            long offset = 0;
+            for (int i = 0; i <= count; i++) {
+                long delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    if (!buffer.hasRemaining()) {
+                        throw new IOException("Truncated record offset index: " + sidecar);
+                    }
+                    b = buffer.get();
+                    delta |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                offset += delta;
+                offsets[i] = offset;
+            }
+            return new RecordOffsetIndex(offsets);
+        }
+    }
+
+    /**
+     * Writes the index to a sidecar file, replacing its content.
+     *
+     * @param sidecar index file
+     * @throws IOException if the file can not be written
+     */
+    public void write(Path sidecar) throws IOException {
+        try (FileChannel channel = FileChannel.open(sidecar, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+            buffer.putInt(MAGIC).put(VERSION).putInt(size());
+
+            long previous = 0;
+            for (long offset : offsets) {
+                // Room for the longest varint
+                if (buffer.remaining() < 10) {
+                    flush(channel, buffer);
+                }
+                long delta = offset - previous;
+                while ((delta & ~0x7FL) != 0) {
+                    buffer.put((byte) ((delta & 0x7F) | 0x80));
+                    delta >>>= 7;
+                }
+                buffer.put((byte) delta);
+                previous = offset;
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * @return number of indexed records
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the start offset of a record.
+     *
+     * @param record record number
+     * @return offset of the record start
+     */
+    public long offset(int record) {
+        assertRecord(record);
+        return offsets[record];
+    }
+
+    /**
+     * Returns the length of a record.
+     *
+     * @param record record number
+     * @return record length in bytes
+     */
+    public int length(int record) {
+        assertRecord(record);
+        return (int) (offsets[record + 1] - offsets[record]);
+    }
+
+    /**
+     * @return offset right after the last indexed record
+     */
+    public long endOffset() {
+        return offsets[offsets.length - 1];
+    }
+
+    /**
+     * Splits the records into consecutive ranges with about the same number of bytes each,
+     * e.g. to hand them to different threads. Range i covers records from result[i] (inclusive)
+     * to result[i + 1] (exclusive).
+     *
+     * @param parts number of ranges
+     * @return parts + 1 record boundaries
+     */
+    public int[] split(int parts) {
+        if (parts <= 0) {
+            throw new InvalidParameterException("Parts must be positive");
+        }
+        int count = size();
+        long start = offsets[0];
+        long bytes = endOffset() - start;
+
+        int[] bounds = new int[parts + 1];
+        for (int i = 1; i < parts; i++) {
+            long target = start + bytes / parts * i + bytes % parts * i / parts;
+            int record = Arrays.binarySearch(offsets, 0, count, target);
+            if (record < 0) {
+                record = -record - 1;
+            }
+            bounds[i] = Math.max(record, bounds[i - 1]);
+        }
+        bounds[parts] = count;
+        return bounds;
+    }
+
+    private void assertRecord(int record) {
+        if (record < 0 || record >= size()) {
+            throw new ArrayIndexOutOfBoundsException(record);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,176 @@
+package com.nikolov.utilslib.bytes.ring;
+
+import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.nio.ByteOrder;
+import java.security.InvalidParameterException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Preallocated single producer, multi consumer ring of {@link DecodeSlot}s for handing raw packets
+ * from an ingest thread to decoder threads without locks.
+ * <p>
+ * The producer copies each packet into the next free slot. A consumer claims the oldest published slot,
+ * decodes it in place with {@link com.nikolov.utilslib.bytes.FromBytesTranslator#processTemplatedValues(PrimitiveValue[])}
+ * and passes it to a {@link SlotHandler}; every packet is handled by exactly one consumer. Slots are then
+ * recycled for the producer.
+ * <p>
+ * Every slot has a sequence counter that tells whose turn it is: the slot for sequence s is free for the
+ * producer when its counter is s, published when it is s + 1 and free again for sequence s + capacity once
+ * consumed. Consumers claim sequences with a CAS on a shared cursor.
+ */
+public class DecodeRingBuffer {
+
+    // Slot counters are spread out so that neighbouring slots do not share a cache line
+    private static final int COUNTER_SPACING = 8;
+
+    private final DecodeSlot[] slots;
+    private final AtomicLongArray counters;
+    private final int mask;
+    private final int slotBytes;
+    private final WaitStrategy waitStrategy;
+    private final AtomicLong consumerCursor = new AtomicLong();
+
+    private long producerSequence;
+    private volatile boolean halted;
+
+    /**
+     * @param capacity        number of slots, a power of two
+     * @param slotBytes       largest packet size
+     * @param templateFactory creates the template of every slot
+     * @param order           byte order of the packets
+     * @param waitStrategy    how to wait for free or published slots
+     */
+    public DecodeRingBuffer(int capacity, int slotBytes, Supplier<PrimitiveValue[]> templateFactory,
+                            ByteOrder order, WaitStrategy waitStrategy) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new InvalidParameterException("Capacity must be a power of two");
+        }
+        if (slotBytes <= 0) {
+            throw new InvalidParameterException("Slot size must be positive");
+        }
+
+        this.slots = new DecodeSlot[capacity];
+        this.counters = new AtomicLongArray(capacity * COUNTER_SPACING);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new DecodeSlot(slotBytes, templateFactory.get(), order);
+            counters.set(i * COUNTER_SPACING, i);
+        }
+        this.mask = capacity - 1;
+        this.slotBytes = slotBytes;
+        this.waitStrategy = waitStrategy;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Copies a packet into the next slot, if it is free. Must only be called from the producer thread.
+     *
+     * @param packet array with the packet
+     * @param offset packet start
+     * @param length packet length
+     * @return false if the ring is full
+     */
+    public boolean tryPublish(byte[] packet, int offset, int length) {
+        if (length < 0 || length > slotBytes) {
+            throw new UnexpectedArrayLengthException();
+        }
+
+        long sequence = producerSequence;
+        int index = (int) sequence & mask;
+        if (counters.get(index * COUNTER_SPACING) != sequence) {
+            return false;
+        }
+
+        slots[index].fill(packet, offset, length, sequence);
+        // Ordered write, the slot content is visible before the slot shows as published
+        counters.lazySet(index * COUNTER_SPACING, sequence + 1);
+        producerSequence = sequence + 1;
+        return true;
+    }
+
+    /**
+     * Copies a packet into the next slot, waiting for it to become free.
+     * Must only be called from the producer thread.
+     *
+     * @param packet array with the packet
+     * @param offset packet start
+     * @param length packet length
+     * @return false if the ring was halted while waiting
+     */
+    public boolean publish(byte[] packet, int offset, int length) {
+        int attempt = 0;
+        while (!tryPublish(packet, offset, length)) {
+            if (halted) {
+                return false;
+            }
+            waitStrategy.idle(++attempt);
+        }
+        return true;
+    }
+
+    /**
+     * Claims, decodes and handles the oldest published packet, if there is one.
+     * Can be called from any number of consumer threads.
+     *
+     * @param handler handler of the decoded packet
+     * @return false if there was no published packet
+     * @throws UnexpectedArrayLengthException if the packet is shorter than the template; the slot is recycled anyway
+     */
+    public boolean tryConsume(SlotHandler handler) {
+        while (true) {
+            long sequence = consumerCursor.get();
+            int index = (int) sequence & mask;
+            long counter = counters.get(index * COUNTER_SPACING);
+
+            if (counter < sequence + 1) {
+                return false;
+            }
+            if (counter == sequence + 1 && consumerCursor.compareAndSet(sequence, sequence + 1)) {
+                try {
+                    DecodeSlot slot = slots[index];
+                    slot.decode();
+                    handler.handle(slot);
+                } finally {
+                    counters.lazySet(index * COUNTER_SPACING, sequence + slots.length);
+                }
+                return true;
+            }
+            // Another consumer took this sequence, try the next one
+        }
+    }
+
+    /**
+     * Claims, decodes and handles the oldest published packet, waiting for one to arrive.
+     *
+     * @param handler handler of the decoded packet
+     * @return false if the ring was halted and no packet was left
+     */
+    public boolean consume(SlotHandler handler) {
+        int attempt = 0;
+        while (!tryConsume(handler)) {
+            if (halted) {
+                // Drain what was published before halting
+                return tryConsume(handler);
+            }
+            waitStrategy.idle(++attempt);
+        }
+        return true;
+    }
+
+    /**
+     * Stops waiting producers and consumers; consumers return false once the ring is drained.
+     */
+    public void halt() {
+        halted = true;
+    }
+
+    public boolean isHalted() {
+        return halted;
+    }
+}
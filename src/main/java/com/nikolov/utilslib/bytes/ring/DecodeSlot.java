@@ -0,0 +1,71 @@
+package com.nikolov.utilslib.bytes.ring;
+
+import com.nikolov.utilslib.bytes.FromBytesTranslator;
+import com.nikolov.utilslib.bytes.TemplateProjection;
+import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.nio.ByteOrder;
+
+/**
+ * Preallocated slot of a {@link DecodeRingBuffer}: the raw packet bytes and the template they are
+ * decoded into. Both are reused every time the slot comes around again, so their content is only
+ * valid while the slot is being handled.
+ */
+public final class DecodeSlot {
+
+    private final byte[] data;
+    private final PrimitiveValue[] template;
+    private final int templateLength;
+    private final FromBytesTranslator translator = new FromBytesTranslator();
+
+    private int length;
+    private long sequence;
+
+    DecodeSlot(int capacity, PrimitiveValue[] template, ByteOrder order) {
+        this.data = new byte[capacity];
+        this.template = template;
+
+        this.templateLength = TemplateProjection.recordLength(template);
+        translator.wrap(data, order);
+    }
+
+    /**
+     * @return reusable storage with the packet bytes, valid up to {@link #getLength()}
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return template filled with the decoded packet
+     */
+    public PrimitiveValue[] getTemplate() {
+        return template;
+    }
+
+    /**
+     * @return sequence number of the packet, counting from 0 in publishing order
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    void fill(byte[] packet, int offset, int length, long sequence) {
+        System.arraycopy(packet, offset, data, 0, length);
+        this.length = length;
+        this.sequence = sequence;
+    }
+
+    void decode() {
+        if (length < templateLength) {
+            throw new UnexpectedArrayLengthException();
+        }
+        translator.resetBufferPositionIndex();
+        translator.processTemplatedValues(template);
+    }
+}
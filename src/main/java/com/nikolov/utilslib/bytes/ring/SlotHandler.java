@@ -0,0 +1,15 @@
+package com.nikolov.utilslib.bytes.ring;
+
+/**
+ * Handles a decoded packet taken from a {@link DecodeRingBuffer}.
+ */
+public interface SlotHandler {
+
+    /**
+     * Called on the consumer thread with the decoded slot. The slot is recycled as soon as this returns,
+     * so values that are needed later must be copied out.
+     *
+     * @param slot slot with the decoded template
+     */
+    void handle(DecodeSlot slot);
+}
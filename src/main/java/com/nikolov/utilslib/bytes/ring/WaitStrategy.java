@@ -0,0 +1,47 @@
+package com.nikolov.utilslib.bytes.ring;
+
+import java.security.InvalidParameterException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * What a {@link DecodeRingBuffer} producer or consumer does while it waits for a slot.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Burns the CPU, for the lowest latency on a dedicated core.
+     */
+    WaitStrategy BUSY_SPIN = attempt -> {
+    };
+
+    /**
+     * Gives the CPU to other threads between attempts.
+     */
+    WaitStrategy YIELD = attempt -> Thread.yield();
+
+    /**
+     * Called after every failed attempt to get a slot.
+     *
+     * @param attempt number of failed attempts so far, starting at 1
+     */
+    void idle(int attempt);
+
+    /**
+     * Spins for a while, then yields, then parks for the given time between attempts.
+     *
+     * @param parkNanos nanoseconds to park for
+     * @return wait strategy
+     */
+    static WaitStrategy park(long parkNanos) {
+        if (parkNanos <= 0) {
+            throw new InvalidParameterException("Park time must be positive");
+        }
+        return attempt -> {
+            if (attempt > 200) {
+                LockSupport.parkNanos(parkNanos);
+            } else if (attempt > 100) {
+                Thread.yield();
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.nikolov.utilslib.bytes.scan;
+
+import com.nikolov.utilslib.bytes.FromBytesTranslator;
+import com.nikolov.utilslib.bytes.TemplateProjection;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Decodes matching records with a {@link FromBytesTranslator}. Heap buffers are decoded in place,
+ * records of direct and mapped buffers are first copied to a scratch array of one record.
+ */
+class DecodingVisitor implements RecordVisitor {
+
+    private final FromBytesTranslator translator = new FromBytesTranslator();
+    private final PrimitiveValue[] template;
+    private final TemplateProjection projection;
+    private final Consumer<PrimitiveValue[]> consumer;
+    private final int recordLength;
+
+    private byte[] wrapped;
+    private byte[] scratch;
+
+    DecodingVisitor(PrimitiveValue[] template, TemplateProjection projection, Consumer<PrimitiveValue[]> consumer) {
+        this.template = template;
+        this.projection = projection;
+        this.consumer = consumer;
+
+        this.recordLength = TemplateProjection.recordLength(template);
+    }
+
+    @Override
+    public void visit(ByteBuffer buffer, int recordStart) {
+        if (buffer.hasArray()) {
+            rewrap(buffer.array());
+            translator.setBufferPositionIndex(buffer.arrayOffset() + recordStart);
+        } else {
+            if (scratch == null) {
+                scratch = new byte[recordLength];
+            }
+            ByteBuffer record = buffer.duplicate();
+            record.position(recordStart);
+            record.get(scratch);
+            rewrap(scratch);
+            translator.setBufferPositionIndex(0);
+        }
+        translator.setOrder(buffer.order());
+
+        // The scanner only visits whole records, so one length check per record is enough
+        if (projection == null) {
+            translator.processTemplatedValuesUnchecked(template);
+        } else {
+            translator.processTemplatedValues(template, projection);
+        }
+        consumer.accept(template);
+    }
+
+    private void rewrap(byte[] array) {
+        if (array != wrapped) {
+            translator.wrap(array);
+            wrapped = array;
+        }
+    }
+}
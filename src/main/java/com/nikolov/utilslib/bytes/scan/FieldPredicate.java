@@ -0,0 +1,291 @@
+package com.nikolov.utilslib.bytes.scan;
+
+import com.nikolov.utilslib.bytes.RawValues;
+import com.nikolov.utilslib.bytes.TemplateProjection;
+import com.nikolov.utilslib.primitives.DecimalValue;
+import com.nikolov.utilslib.primitives.NumberValue;
+import com.nikolov.utilslib.primitives.PrimitiveType;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.security.InvalidParameterException;
+import java.util.Objects;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.UINT64;
+
+/**
+ * Condition on the fields of a templated record, e.g.
+ * <pre>
+ * FieldPredicate.eq(0, 7).and(FieldPredicate.gt(3, 99.5))
+ * </pre>
+ * Fields are referenced by their index in the template. A predicate is compiled once per template
+ * with {@link #compile(PrimitiveValue[])} and then tested straight on the encoded bytes.
+ * <p>
+ * Numeric comparisons follow the field type: signed and unsigned integral fields are compared as
+ * integers (the constant is taken as raw unsigned bits for UINT64 fields), floating point fields and
+ * floating point constants are compared as doubles with the Java operators, so -0.0 equals 0.0 and NaN
+ * only matches {@code ne}. {@link DecimalValue} fields are rejected, their raw mantissas would be
+ * compared without the scale.
+ */
+public abstract class FieldPredicate {
+
+    FieldPredicate() {
+    }
+
+    public static FieldPredicate eq(int field, long value) {
+        return new Comparison(field, Operator.EQ, value);
+    }
+
+    public static FieldPredicate ne(int field, long value) {
+        return new Comparison(field, Operator.NE, value);
+    }
+
+    public static FieldPredicate lt(int field, long value) {
+        return new Comparison(field, Operator.LT, value);
+    }
+
+    public static FieldPredicate le(int field, long value) {
+        return new Comparison(field, Operator.LE, value);
+    }
+
+    public static FieldPredicate gt(int field, long value) {
+        return new Comparison(field, Operator.GT, value);
+    }
+
+    public static FieldPredicate ge(int field, long value) {
+        return new Comparison(field, Operator.GE, value);
+    }
+
+    public static FieldPredicate eq(int field, double value) {
+        return new Comparison(field, Operator.EQ, value);
+    }
+
+    public static FieldPredicate ne(int field, double value) {
+        return new Comparison(field, Operator.NE, value);
+    }
+
+    public static FieldPredicate lt(int field, double value) {
+        return new Comparison(field, Operator.LT, value);
+    }
+
+    public static FieldPredicate le(int field, double value) {
+        return new Comparison(field, Operator.LE, value);
+    }
+
+    public static FieldPredicate gt(int field, double value) {
+        return new Comparison(field, Operator.GT, value);
+    }
+
+    public static FieldPredicate ge(int field, double value) {
+        return new Comparison(field, Operator.GE, value);
+    }
+
+    /**
+     * Matches a string or byte array field whose bytes equal the value. The value must be as long as the field.
+     *
+     * @param field template field index
+     * @param value expected bytes
+     * @return predicate
+     */
+    public static FieldPredicate bytesEqual(int field, byte[] value) {
+        return new BytesMatch(field, value.clone(), true);
+    }
+
+    /**
+     * Matches a string field equal to the value, compared as bytes in the default charset.
+     *
+     * @param field template field index
+     * @param value expected string
+     * @return predicate
+     */
+    public static FieldPredicate bytesEqual(int field, String value) {
+        return new BytesMatch(field, value.getBytes(), true);
+    }
+
+    /**
+     * Matches a string or byte array field that starts with the given bytes.
+     *
+     * @param field  template field index
+     * @param prefix expected first bytes
+     * @return predicate
+     */
+    public static FieldPredicate bytesStartWith(int field, byte[] prefix) {
+        return new BytesMatch(field, prefix.clone(), false);
+    }
+
+    public FieldPredicate and(FieldPredicate other) {
+        FieldPredicate self = this;
+        Objects.requireNonNull(other);
+        return new FieldPredicate() {
+            @Override
+            public RecordPredicate compile(PrimitiveValue[] template) {
+                RecordPredicate left = self.compile(template);
+                RecordPredicate right = other.compile(template);
+                return (buffer, recordStart) -> left.test(buffer, recordStart) && right.test(buffer, recordStart);
+            }
+        };
+    }
+
+    public FieldPredicate or(FieldPredicate other) {
+        FieldPredicate self = this;
+        Objects.requireNonNull(other);
+        return new FieldPredicate() {
+            @Override
+            public RecordPredicate compile(PrimitiveValue[] template) {
+                RecordPredicate left = self.compile(template);
+                RecordPredicate right = other.compile(template);
+                return (buffer, recordStart) -> left.test(buffer, recordStart) || right.test(buffer, recordStart);
+            }
+        };
+    }
+
+    public FieldPredicate negate() {
+        FieldPredicate self = this;
+        return new FieldPredicate() {
+            @Override
+            public RecordPredicate compile(PrimitiveValue[] template) {
+                RecordPredicate inner = self.compile(template);
+                return (buffer, recordStart) -> !inner.test(buffer, recordStart);
+            }
+        };
+    }
+
+    /**
+     * Resolves the referenced fields against the template.
+     *
+     * @param template record template
+     * @return predicate working on encoded records
+     */
+    public abstract RecordPredicate compile(PrimitiveValue[] template);
+
+    private static int fieldOffset(PrimitiveValue[] template, int field) {
+        return TemplateProjection.of(template, field).getOffset(0);
+    }
+
+    private enum Operator {
+        EQ, NE, LT, LE, GT, GE;
+
+        boolean matches(int comparison) {
+            switch (this) {
+                case EQ:
+                    return comparison == 0;
+                case NE:
+                    return comparison != 0;
+                case LT:
+                    return comparison < 0;
+                case LE:
+                    return comparison <= 0;
+                case GT:
+                    return comparison > 0;
+                default:
+                    return comparison >= 0;
+            }
+        }
+
+        boolean matches(double a, double b) {
+            switch (this) {
+                case EQ:
+                    return a == b;
+                case NE:
+                    return a != b;
+                case LT:
+                    return a < b;
+                case LE:
+                    return a <= b;
+                case GT:
+                    return a > b;
+                default:
+                    return a >= b;
+            }
+        }
+    }
+
+    private static final class Comparison extends FieldPredicate {
+
+        private final int field;
+        private final Operator operator;
+        private final boolean floating;
+        private final long longValue;
+        private final double doubleValue;
+
+        Comparison(int field, Operator operator, long value) {
+            this.field = field;
+            this.operator = operator;
+            this.floating = false;
+            this.longValue = value;
+            this.doubleValue = value;
+        }
+
+        Comparison(int field, Operator operator, double value) {
+            this.field = field;
+            this.operator = operator;
+            this.floating = true;
+            this.longValue = (long) value;
+            this.doubleValue = value;
+        }
+
+        @Override
+        public RecordPredicate compile(PrimitiveValue[] template) {
+            int offset = fieldOffset(template, field);
+            if (!Objects.equals(template[field].getType(), Number.class)) {
+                throw new InvalidParameterException("Field " + field + " is not numeric");
+            }
+            if (template[field] instanceof DecimalValue) {
+                // The raw mantissa would be compared without its scale
+                throw new InvalidParameterException("Field " + field + " is a decimal");
+            }
+
+            PrimitiveType type = ((NumberValue) template[field]).getPrimitiveType();
+            Operator op = operator;
+            long lv = longValue;
+            double dv = doubleValue;
+
+            if (floating || !RawValues.isIntegral(type)) {
+                return (buffer, recordStart) ->
+                        op.matches(RawValues.getDouble(buffer, recordStart + offset, type), dv);
+            } else if (type.isOfType(UINT64)) {
+                return (buffer, recordStart) ->
+                        op.matches(Long.compareUnsigned(buffer.getLong(recordStart + offset), lv));
+            }
+            return (buffer, recordStart) ->
+                    op.matches(Long.compare(RawValues.getLong(buffer, recordStart + offset, type), lv));
+        }
+    }
+
+    private static final class BytesMatch extends FieldPredicate {
+
+        private final int field;
+        private final byte[] value;
+        private final boolean wholeField;
+
+        BytesMatch(int field, byte[] value, boolean wholeField) {
+            this.field = field;
+            this.value = value;
+            this.wholeField = wholeField;
+        }
+
+        @Override
+        public RecordPredicate compile(PrimitiveValue[] template) {
+            int offset = fieldOffset(template, field);
+            Class<?> type = template[field].getType();
+            if (!Objects.equals(type, String.class) && !Objects.equals(type, Byte[].class)) {
+                throw new InvalidParameterException("Field " + field + " is not a string or byte array");
+            }
+            int fieldBytes = template[field].getBytesCount();
+            if (wholeField ? value.length != fieldBytes : value.length > fieldBytes) {
+                // Can never match
+                return (buffer, recordStart) -> false;
+            }
+
+            byte[] expected = value;
+            return (buffer, recordStart) -> {
+                int index = recordStart + offset;
+                for (int i = 0; i < expected.length; i++) {
+                    if (buffer.get(index + i) != expected[i]) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+    }
+}
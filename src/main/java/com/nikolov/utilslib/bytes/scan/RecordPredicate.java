@@ -0,0 +1,16 @@
+package com.nikolov.utilslib.bytes.scan;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compiled {@link FieldPredicate}, tested on the raw bytes of a record.
+ */
+public interface RecordPredicate {
+
+    /**
+     * @param buffer      buffer with records
+     * @param recordStart absolute index of the record start
+     * @return true if the record matches
+     */
+    boolean test(ByteBuffer buffer, int recordStart);
+}
@@ -0,0 +1,123 @@
+package com.nikolov.utilslib.bytes.scan;
+
+import com.nikolov.utilslib.bytes.MappedRecordFile;
+import com.nikolov.utilslib.bytes.TemplateProjection;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.nio.ByteBuffer;
+import java.security.InvalidParameterException;
+
+/**
+ * Filters fixed width templated records on their encoded bytes, so that only the matching records
+ * get decoded. The predicate is compiled once, when the scanner is created.
+ * <pre>
+ * RecordScanner scanner = RecordScanner.of(template, FieldPredicate.eq(0, 7).and(FieldPredicate.gt(2, 100.0)));
+ * scanner.scan(buffer, RecordVisitor.decoding(template, values -&gt; ...));
+ * </pre>
+ */
+public final class RecordScanner {
+
+    private final int recordLength;
+    private final RecordPredicate predicate;
+
+    private RecordScanner(int recordLength, RecordPredicate predicate) {
+        this.recordLength = recordLength;
+        this.predicate = predicate;
+    }
+
+    /**
+     * Compiles the predicate for the template.
+     *
+     * @param template  record template
+     * @param predicate condition on template fields
+     * @return scanner
+     */
+    public static RecordScanner of(PrimitiveValue[] template, FieldPredicate predicate) {
+        if (template == null || predicate == null) {
+            throw new InvalidParameterException();
+        }
+        int length = TemplateProjection.recordLength(template);
+        if (length == 0) {
+            throw new InvalidParameterException("Template is empty");
+        }
+        return new RecordScanner(length, predicate.compile(template));
+    }
+
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * Visits the matching records between the buffer position and its limit.
+     * A trailing partial record is ignored.
+     *
+     * @param buffer  heap, direct or mapped buffer with records
+     * @param visitor receives matching records
+     * @return number of matching records
+     */
+    public long scan(ByteBuffer buffer, RecordVisitor visitor) {
+        long matches = 0;
+        int last = buffer.limit() - recordLength;
+        for (int start = buffer.position(); start <= last; start += recordLength) {
+            if (predicate.test(buffer, start)) {
+                visitor.visit(buffer, start);
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Visits the matching records of a mapped file.
+     *
+     * @param file    mapped records, with the same record length as the template
+     * @param visitor receives matching records
+     * @return number of matching records
+     */
+    public long scan(MappedRecordFile file, RecordVisitor visitor) {
+        assertRecordLength(file);
+        long matches = 0;
+        for (int i = 0; i < file.getWindowCount(); i++) {
+            matches += scan(file.window(i), visitor);
+        }
+        return matches;
+    }
+
+    /**
+     * Counts the matching records between the buffer position and its limit.
+     *
+     * @param buffer buffer with records
+     * @return number of matching records
+     */
+    public long count(ByteBuffer buffer) {
+        long matches = 0;
+        int last = buffer.limit() - recordLength;
+        for (int start = buffer.position(); start <= last; start += recordLength) {
+            if (predicate.test(buffer, start)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Counts the matching records of a mapped file.
+     *
+     * @param file mapped records, with the same record length as the template
+     * @return number of matching records
+     */
+    public long count(MappedRecordFile file) {
+        assertRecordLength(file);
+        long matches = 0;
+        for (int i = 0; i < file.getWindowCount(); i++) {
+            matches += count(file.window(i));
+        }
+        return matches;
+    }
+
+    private void assertRecordLength(MappedRecordFile file) {
+        if (file.getRecordLength() != recordLength) {
+            throw new InvalidParameterException("File record length does not match the template");
+        }
+    }
+}
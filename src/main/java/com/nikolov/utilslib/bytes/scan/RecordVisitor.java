@@ -0,0 +1,44 @@
+package com.nikolov.utilslib.bytes.scan;
+
+import com.nikolov.utilslib.bytes.TemplateProjection;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Receives the records matched by a {@link RecordScanner}.
+ */
+public interface RecordVisitor {
+
+    /**
+     * @param buffer      buffer with records
+     * @param recordStart absolute index of the matching record
+     */
+    void visit(ByteBuffer buffer, int recordStart);
+
+    /**
+     * Visitor that decodes each matching record into the template and passes it on.
+     * The same template instance is filled for every record.
+     *
+     * @param template record template
+     * @param consumer receives the filled template
+     * @return visitor
+     */
+    static RecordVisitor decoding(PrimitiveValue[] template, Consumer<PrimitiveValue[]> consumer) {
+        return new DecodingVisitor(template, null, consumer);
+    }
+
+    /**
+     * Visitor that decodes the projected fields of each matching record into the template and passes it on.
+     *
+     * @param template   record template
+     * @param projection fields to decode
+     * @param consumer   receives the filled template
+     * @return visitor
+     */
+    static RecordVisitor decoding(PrimitiveValue[] template, TemplateProjection projection,
+                                  Consumer<PrimitiveValue[]> consumer) {
+        return new DecodingVisitor(template, projection, consumer);
+    }
+}
@@ -0,0 +1,56 @@
+package com.nikolov.utilslib.bytes.search;
+
+/**
+ * Sparse in-memory sample of the keys of sorted records: the key of every Nth record.
+ * A {@link SortedRecordSearch} first searches the samples and then only the records between two
+ * of them, so a lookup touches far fewer pages of a mapped file.
+ * <p>
+ * Created with {@link SortedRecordSearch#buildFenceIndex}.
+ */
+public final class FenceIndex {
+
+    private final int interval;
+    private final long recordCount;
+    // Keys in their order preserving form, see SortedRecordSearch
+    private final long[] keys;
+
+    FenceIndex(int interval, long recordCount, long[] keys) {
+        this.interval = interval;
+        this.recordCount = recordCount;
+        this.keys = keys;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Narrows down where the first record with a key at least (or above, when upper) the target can be.
+     *
+     * @return lowest and highest candidate record numbers, the highest one being a valid answer too
+     */
+    long[] narrow(long target, boolean upper) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (upper ? keys[mid] <= target : keys[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        // Fence low is the first sample that can be the answer, the one before it can not
+        long from = low == 0 ? 0 : (long) (low - 1) * interval + 1;
+        long to = low == keys.length ? recordCount : (long) low * interval;
+        return new long[]{from, to};
+    }
+}
@@ -0,0 +1,43 @@
+package com.nikolov.utilslib.bytes.search;
+
+/**
+ * Consecutive records found by a {@link SortedRecordSearch}, from the first record (inclusive)
+ * to the last record (exclusive).
+ */
+public final class RecordRange {
+
+    private final long from;
+    private final long to;
+
+    RecordRange(long from, long to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * @return number of the first record in the range
+     */
+    public long getFrom() {
+        return from;
+    }
+
+    /**
+     * @return number of the record right after the range
+     */
+    public long getTo() {
+        return to;
+    }
+
+    public long size() {
+        return to - from;
+    }
+
+    public boolean isEmpty() {
+        return to == from;
+    }
+
+    @Override
+    public String toString() {
+        return "RecordRange[" + from + ", " + to + ')';
+    }
+}
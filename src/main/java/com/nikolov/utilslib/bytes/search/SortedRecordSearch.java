@@ -0,0 +1,315 @@
+package com.nikolov.utilslib.bytes.search;
+
+import com.nikolov.utilslib.bytes.MappedRecordFile;
+import com.nikolov.utilslib.bytes.RawValues;
+import com.nikolov.utilslib.bytes.TemplateProjection;
+import com.nikolov.utilslib.primitives.DecimalValue;
+import com.nikolov.utilslib.primitives.NumberValue;
+import com.nikolov.utilslib.primitives.PrimitiveType;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.nio.ByteBuffer;
+import java.security.InvalidParameterException;
+import java.util.Objects;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.UINT64;
+
+/**
+ * Binary search over fixed width records sorted by a numeric key field, in a buffer or a mapped file.
+ * Keys are read in place with the byte order of the data; no record is decoded.
+ * <p>
+ * Records are referred to by number: in a buffer record n starts at {@code position + n * recordLength},
+ * in a file at {@code n * recordLength}. Keys compare by the field type: signed, unsigned
+ * (UINT64 keys are passed as their raw bits) or floating point.
+ */
+public final class SortedRecordSearch {
+
+    private final PrimitiveType keyType;
+    private final int keyOffset;
+    private final int recordLength;
+    private final boolean floating;
+
+    private SortedRecordSearch(PrimitiveType keyType, int keyOffset, int recordLength) {
+        this.keyType = keyType;
+        this.keyOffset = keyOffset;
+        this.recordLength = recordLength;
+        this.floating = !RawValues.isIntegral(keyType);
+    }
+
+    /**
+     * @param template record template
+     * @param keyField index of the numeric field the records are sorted by, not a {@link DecimalValue}
+     * @return search
+     */
+    public static SortedRecordSearch of(PrimitiveValue[] template, int keyField) {
+        TemplateProjection projection = TemplateProjection.of(template, keyField);
+        if (!Objects.equals(template[keyField].getType(), Number.class)) {
+            throw new InvalidParameterException("Key field " + keyField + " is not numeric");
+        }
+        if (template[keyField] instanceof DecimalValue) {
+            // Keys would be compared with the raw mantissa, without its scale
+            throw new InvalidParameterException("Key field " + keyField + " is a decimal");
+        }
+        PrimitiveType type = ((NumberValue) template[keyField]).getPrimitiveType();
+        return new SortedRecordSearch(type, projection.getOffset(0), projection.getRecordLength());
+    }
+
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * @param buffer sorted records between the buffer position and its limit
+     * @param key    key to look for
+     * @return number of a record with the key, or (-(insertion point) - 1) if there is none
+     */
+    public long find(ByteBuffer buffer, long key) {
+        return find(new BufferRecords(buffer), null, comparable(key));
+    }
+
+    public long find(ByteBuffer buffer, double key) {
+        return find(new BufferRecords(buffer), null, comparable(key));
+    }
+
+    /**
+     * @param buffer sorted records between the buffer position and its limit
+     * @param key    key to look for
+     * @return number of the first record with a key not less than the given one
+     */
+    public long lowerBound(ByteBuffer buffer, long key) {
+        Records records = new BufferRecords(buffer);
+        return search(records, 0, records.count(), comparable(key), false);
+    }
+
+    /**
+     * @param buffer sorted records between the buffer position and its limit
+     * @param key    key to look for
+     * @return number of the first record with a key greater than the given one
+     */
+    public long upperBound(ByteBuffer buffer, long key) {
+        Records records = new BufferRecords(buffer);
+        return search(records, 0, records.count(), comparable(key), true);
+    }
+
+    /**
+     * @param buffer  sorted records between the buffer position and its limit
+     * @param fromKey smallest key (inclusive)
+     * @param toKey   largest key (inclusive)
+     * @return records with keys in the range
+     */
+    public RecordRange range(ByteBuffer buffer, long fromKey, long toKey) {
+        return range(new BufferRecords(buffer), null, comparable(fromKey), comparable(toKey));
+    }
+
+    public RecordRange range(ByteBuffer buffer, double fromKey, double toKey) {
+        return range(new BufferRecords(buffer), null, comparable(fromKey), comparable(toKey));
+    }
+
+    /**
+     * @param file sorted records
+     * @param key  key to look for
+     * @return number of a record with the key, or (-(insertion point) - 1) if there is none
+     */
+    public long find(MappedRecordFile file, long key) {
+        return find(new FileRecords(file), null, comparable(key));
+    }
+
+    public long find(MappedRecordFile file, double key) {
+        return find(new FileRecords(file), null, comparable(key));
+    }
+
+    /**
+     * Same as {@link #find(MappedRecordFile, long)}, narrowing the search with a fence index first.
+     *
+     * @param file  sorted records
+     * @param fence fence index built for the file
+     * @param key   key to look for
+     * @return number of a record with the key, or (-(insertion point) - 1) if there is none
+     */
+    public long find(MappedRecordFile file, FenceIndex fence, long key) {
+        return find(new FileRecords(file), fence, comparable(key));
+    }
+
+    public long find(MappedRecordFile file, FenceIndex fence, double key) {
+        return find(new FileRecords(file), fence, comparable(key));
+    }
+
+    /**
+     * @param file    sorted records
+     * @param fence   fence index built for the file, or null
+     * @param fromKey smallest key (inclusive)
+     * @param toKey   largest key (inclusive)
+     * @return records with keys in the range
+     */
+    public RecordRange range(MappedRecordFile file, FenceIndex fence, long fromKey, long toKey) {
+        return range(new FileRecords(file), fence, comparable(fromKey), comparable(toKey));
+    }
+
+    public RecordRange range(MappedRecordFile file, FenceIndex fence, double fromKey, double toKey) {
+        return range(new FileRecords(file), fence, comparable(fromKey), comparable(toKey));
+    }
+
+    /**
+     * Samples the key of every Nth record of the file.
+     *
+     * @param file     sorted records
+     * @param interval number of records between two samples
+     * @return fence index
+     */
+    public FenceIndex buildFenceIndex(MappedRecordFile file, int interval) {
+        if (interval <= 0) {
+            throw new InvalidParameterException("Interval must be positive");
+        }
+        Records records = new FileRecords(file);
+        long count = records.count();
+        long samples = (count + interval - 1) / interval;
+        if (samples > Integer.MAX_VALUE) {
+            throw new InvalidParameterException("Interval is too small for the file");
+        }
+
+        long[] keys = new long[(int) samples];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = records.key((long) i * interval);
+        }
+        return new FenceIndex(interval, count, keys);
+    }
+
+    private long find(Records records, FenceIndex fence, long target) {
+        long[] bounds = bounds(records, fence, target, false);
+        long index = search(records, bounds[0], bounds[1], target, false);
+        if (index < records.count() && records.key(index) == target) {
+            return index;
+        }
+        return -index - 1;
+    }
+
+    private RecordRange range(Records records, FenceIndex fence, long from, long to) {
+        long[] bounds = bounds(records, fence, from, false);
+        long start = search(records, bounds[0], bounds[1], from, false);
+        if (to < from) {
+            return new RecordRange(start, start);
+        }
+        bounds = bounds(records, fence, to, true);
+        long end = search(records, Math.max(start, bounds[0]), bounds[1], to, true);
+        return new RecordRange(start, end);
+    }
+
+    private long[] bounds(Records records, FenceIndex fence, long target, boolean upper) {
+        if (fence == null) {
+            return new long[]{0, records.count()};
+        }
+        if (fence.getRecordCount() != records.count()) {
+            throw new InvalidParameterException("Fence index was built for other records");
+        }
+        return fence.narrow(target, upper);
+    }
+
+    /**
+     * @return first record in [low, high) with a key at least the target, or greater than it when upper;
+     * high if there is none
+     */
+    private static long search(Records records, long low, long high, long target, boolean upper) {
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            long key = records.key(mid);
+            if (upper ? key <= target : key < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Maps a key to a long whose signed order is the order of the key type.
+     */
+    private long comparable(long key) {
+        if (floating) {
+            return comparable((double) key);
+        }
+        return keyType.isOfType(UINT64) ? key ^ Long.MIN_VALUE : key;
+    }
+
+    private long comparable(double key) {
+        if (!floating) {
+            throw new InvalidParameterException("Key field is integral, use a long key");
+        }
+        return sortableBits(key);
+    }
+
+    private long comparableAt(ByteBuffer buffer, int index) {
+        if (floating) {
+            return sortableBits(RawValues.getDouble(buffer, index, keyType));
+        }
+        long key = RawValues.getLong(buffer, index, keyType);
+        return keyType.isOfType(UINT64) ? key ^ Long.MIN_VALUE : key;
+    }
+
+    private static long sortableBits(double value) {
+        // Flip all but the sign bit of negative values, so the bits order like the values
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private interface Records {
+
+        long count();
+
+        long key(long record);
+    }
+
+    private final class BufferRecords implements Records {
+
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int count;
+
+        BufferRecords(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.start = buffer.position() + keyOffset;
+            this.count = (buffer.limit() - buffer.position()) / recordLength;
+        }
+
+        @Override
+        public long count() {
+            return count;
+        }
+
+        @Override
+        public long key(long record) {
+            return comparableAt(buffer, start + (int) record * recordLength);
+        }
+    }
+
+    private final class FileRecords implements Records {
+
+        private final MappedRecordFile file;
+        private final ByteBuffer[] windows;
+        private final int recordsPerWindow;
+
+        FileRecords(MappedRecordFile file) {
+            if (file.getRecordLength() != recordLength) {
+                throw new InvalidParameterException("File record length does not match the template");
+            }
+            this.file = file;
+            this.recordsPerWindow = file.getRecordsPerWindow();
+            this.windows = new ByteBuffer[file.getWindowCount()];
+        }
+
+        @Override
+        public long count() {
+            return file.getRecordCount();
+        }
+
+        @Override
+        public long key(long record) {
+            int window = (int) (record / recordsPerWindow);
+            if (windows[window] == null) {
+                windows[window] = file.window(window);
+            }
+            int index = (int) (record % recordsPerWindow) * recordLength + keyOffset;
+            return comparableAt(windows[window], index);
+        }
+    }
+}
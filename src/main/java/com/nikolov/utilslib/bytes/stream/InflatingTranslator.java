@@ -0,0 +1,362 @@
+package com.nikolov.utilslib.bytes.stream;
+
+import com.nikolov.utilslib.bytes.FromBytesTranslator;
+import com.nikolov.utilslib.bytes.TemplateProjection;
+import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteOrder;
+import java.security.InvalidParameterException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Decodes templated records straight from a deflate, zlib or gzip compressed stream,
+ * without inflating the whole stream into memory first.
+ * <p>
+ * Data is inflated directly into a reusable window that a {@link FromBytesTranslator} reads from.
+ * When a record crosses the end of the window, only its already inflated head is moved to the
+ * window start before inflating the rest behind it. The window, the input buffer and the
+ * {@link Inflater} are reused across records and across streams passed to {@link #reset(InputStream)}.
+ * For gzip the header and the trailer are parsed here and the deflate data in between goes through the
+ * same inflater, so no native inflater is left behind by a reset.
+ * <p>
+ * Instances are not thread safe.
+ */
+public class InflatingTranslator implements Closeable {
+
+    private static final int DEFAULT_WINDOW_BYTES = 64 * 1024;
+    private static final int INPUT_BUFFER_BYTES = 16 * 1024;
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final FromBytesTranslator translator = new FromBytesTranslator();
+    private final boolean gzip;
+    private final Inflater inflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] input = new byte[INPUT_BUFFER_BYTES];
+
+    private InputStream in;
+    private int inputPosition;
+    private int inputLimit;
+    private boolean ended;
+    private byte[] window;
+    private ByteOrder order = ByteOrder.BIG_ENDIAN;
+    private int start;
+    private int end;
+
+    private InflatingTranslator(InputStream in, boolean gzip, boolean nowrap, int windowBytes) {
+        if (windowBytes <= 0) {
+            throw new InvalidParameterException("Window size must be positive");
+        }
+        this.in = in;
+        this.gzip = gzip;
+        this.inflater = new Inflater(nowrap || gzip);
+        this.window = new byte[windowBytes];
+        translator.wrap(window, order);
+    }
+
+    /**
+     * Creates a translator over a raw deflate or a zlib stream.
+     *
+     * @param compressed compressed data
+     * @param nowrap     true for raw deflate data, false for zlib wrapped data
+     * @return translator
+     */
+    public static InflatingTranslator deflate(InputStream compressed, boolean nowrap) {
+        return deflate(compressed, nowrap, DEFAULT_WINDOW_BYTES);
+    }
+
+    /**
+     * Creates a translator over a raw deflate or a zlib stream.
+     *
+     * @param compressed  compressed data
+     * @param nowrap      true for raw deflate data, false for zlib wrapped data
+     * @param windowBytes initial size of the inflate window
+     * @return translator
+     */
+    public static InflatingTranslator deflate(InputStream compressed, boolean nowrap, int windowBytes) {
+        return new InflatingTranslator(compressed, false, nowrap, windowBytes);
+    }
+
+    /**
+     * Creates a translator over a gzip stream.
+     *
+     * @param compressed compressed data
+     * @return translator
+     * @throws IOException if the gzip header can not be read
+     */
+    public static InflatingTranslator gzip(InputStream compressed) throws IOException {
+        return gzip(compressed, DEFAULT_WINDOW_BYTES);
+    }
+
+    /**
+     * Creates a translator over a gzip stream.
+     *
+     * @param compressed  compressed data
+     * @param windowBytes initial size of the inflate window
+     * @return translator
+     * @throws IOException if the gzip header can not be read
+     */
+    public static InflatingTranslator gzip(InputStream compressed, int windowBytes) throws IOException {
+        InflatingTranslator it = new InflatingTranslator(compressed, true, true, windowBytes);
+        try {
+            it.readGzipHeader();
+        } catch (IOException e) {
+            it.inflater.end();
+            throw e;
+        }
+        return it;
+    }
+
+    /**
+     * Starts reading another compressed stream of the same format, reusing the window and the inflater.
+     * The previous stream is not closed.
+     *
+     * @param compressed compressed data
+     * @throws IOException if the gzip header can not be read
+     */
+    public void reset(InputStream compressed) throws IOException {
+        in = compressed;
+        inflater.reset();
+        inputPosition = 0;
+        inputLimit = 0;
+        ended = false;
+        start = 0;
+        end = 0;
+        if (gzip) {
+            readGzipHeader();
+        }
+    }
+
+    public void setOrder(ByteOrder order) {
+        this.order = order;
+        translator.setOrder(order);
+    }
+
+    /**
+     * Decodes the next record into the template.
+     *
+     * @param template template to fill
+     * @return true if a record was decoded, false at the end of the stream
+     * @throws IOException                    if the stream can not be read or inflated
+     * @throws UnexpectedArrayLengthException if the stream ends in the middle of a record
+     */
+    public boolean next(PrimitiveValue[] template) throws IOException {
+        int length = TemplateProjection.recordLength(template);
+        if (!fill(length)) {
+            if (start == end) {
+                return false;
+            }
+            throw new UnexpectedArrayLengthException();
+        }
+
+        translator.setBufferPositionIndex(start);
+        translator.processTemplatedValuesUnchecked(template);
+        start = translator.getBufferPositionIndex();
+        return true;
+    }
+
+    /**
+     * Skips bytes of inflated data.
+     *
+     * @param bytes number of bytes to skip
+     * @return true if skipped, false if the stream ended first
+     * @throws IOException if the stream can not be read or inflated
+     */
+    public boolean skip(long bytes) throws IOException {
+        while (bytes > 0) {
+            if (start == end && !fill(1)) {
+                return false;
+            }
+            int step = (int) Math.min(bytes, end - start);
+            start += step;
+            bytes -= step;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            in.close();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Makes sure there are at least the given number of inflated bytes after the read index.
+     *
+     * @return false if the stream ended first
+     */
+    private boolean fill(int needed) throws IOException {
+        if (end - start >= needed) {
+            return true;
+        }
+        if (start == end) {
+            start = 0;
+            end = 0;
+        }
+
+        if (window.length - start < needed) {
+            // Keep the head of the record that crosses the window end
+            int pending = end - start;
+            if (window.length < needed) {
+                byte[] larger = new byte[Math.max(needed, window.length * 2)];
+                System.arraycopy(window, start, larger, 0, pending);
+                window = larger;
+                translator.wrap(window, order);
+            } else {
+                System.arraycopy(window, start, window, 0, pending);
+            }
+            start = 0;
+            end = pending;
+        }
+
+        while (end - start < needed) {
+            int read = read(window, end, window.length - end);
+            if (read < 0) {
+                return false;
+            }
+            end += read;
+        }
+        return true;
+    }
+
+    private int read(byte[] buffer, int offset, int length) throws IOException {
+        try {
+            int inflated;
+            while ((inflated = inflater.inflate(buffer, offset, length)) == 0) {
+                if (inflater.finished()) {
+                    if (gzip && !ended && nextGzipMember()) {
+                        continue;
+                    }
+                    return -1;
+                }
+                if (inflater.needsDictionary()) {
+                    throw new ZipException("Compressed stream needs a preset dictionary");
+                }
+                if (inflater.needsInput()) {
+                    // Bytes after a gzip header may still be waiting in the input buffer
+                    if (inputPosition == inputLimit && !refill()) {
+                        throw new EOFException("Unexpected end of compressed stream");
+                    }
+                    inflater.setInput(input, inputPosition, inputLimit - inputPosition);
+                    inputPosition = inputLimit;
+                }
+            }
+            if (gzip) {
+                crc.update(buffer, offset, inflated);
+            }
+            return inflated;
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        }
+    }
+
+    /**
+     * Checks the trailer of the finished gzip member and starts the next one, if the stream has one.
+     *
+     * @return false at the end of the stream
+     */
+    private boolean nextGzipMember() throws IOException {
+        // The inflater leaves the bytes after the deflate data at the end of the last input
+        inputPosition = inputLimit - inflater.getRemaining();
+        long expectedCrc = readIntLE();
+        long expectedSize = readIntLE();
+        if (expectedCrc != crc.getValue() || expectedSize != (inflater.getBytesWritten() & 0xFFFFFFFFL)) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+
+        if (inputPosition == inputLimit && !refill()) {
+            ended = true;
+            return false;
+        }
+        inflater.reset();
+        try {
+            readGzipHeader();
+        } catch (IOException e) {
+            // Like GZIPInputStream, data after the last member that is not a member ends the stream
+            ended = true;
+            return false;
+        }
+        return true;
+    }
+
+    private void readGzipHeader() throws IOException {
+        crc.reset();
+        if ((readByte() | readByte() << 8) != GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format");
+        }
+        if (readByte() != 8) {
+            throw new ZipException("Unsupported compression method");
+        }
+        int flags = readByte();
+        // Modification time, extra flags and operating system
+        skipBytes(6);
+        if ((flags & FEXTRA) != 0) {
+            skipBytes(readByte() | readByte() << 8);
+        }
+        if ((flags & FNAME) != 0) {
+            skipZeroTerminated();
+        }
+        if ((flags & FCOMMENT) != 0) {
+            skipZeroTerminated();
+        }
+        if ((flags & FHCRC) != 0) {
+            skipBytes(2);
+        }
+    }
+
+    private long readIntLE() throws IOException {
+        return readByte() | readByte() << 8 | readByte() << 16 | (long) readByte() << 24;
+    }
+
+    private void skipBytes(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            readByte();
+        }
+    }
+
+    private void skipZeroTerminated() throws IOException {
+        while (readByte() != 0) {
+            // Skip the string
+        }
+    }
+
+    private int readByte() throws IOException {
+        if (inputPosition == inputLimit && !refill()) {
+            throw new EOFException("Unexpected end of gzip stream");
+        }
+        return input[inputPosition++] & 0xFF;
+    }
+
+    /**
+     * Reads more compressed data into the empty input buffer.
+     *
+     * @return false at the end of the stream
+     */
+    private boolean refill() throws IOException {
+        int read;
+        do {
+            read = in.read(input);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        inputPosition = 0;
+        inputLimit = read;
+        return true;
+    }
+}
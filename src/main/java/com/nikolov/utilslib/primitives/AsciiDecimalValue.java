@@ -0,0 +1,41 @@
+package com.nikolov.utilslib.primitives;
+
+import java.io.IOException;
+
+/**
+ * Decimal written as fixed width ASCII, e.g. {@code "  -12.50"}, kept as a mantissa with the field scale
+ * like {@link DecimalValue}. A decimal point is optional: without one the digits are the mantissa itself
+ * (an implied point, as in {@code "001250"} for 12.50 with scale 2). With one, up to {@code scale}
+ * fraction digits are accepted.
+ *
+ * @see AsciiIntegerValue
+ */
+public class AsciiDecimalValue extends AsciiIntegerValue {
+
+    /**
+     * @param width field width in bytes
+     * @param scale number of fraction digits
+     */
+    public AsciiDecimalValue(int width, int scale) {
+        super(width, scale);
+    }
+
+    public double toDouble() {
+        return Decimals.toDouble(getMantissa(), getScale());
+    }
+
+    /**
+     * Writes the value in plain notation without creating objects.
+     *
+     * @param out where to write
+     * @throws IOException if the appendable throws it
+     */
+    public void formatTo(Appendable out) throws IOException {
+        Decimals.format(getMantissa(), getScale(), out);
+    }
+
+    @Override
+    public String toString() {
+        return isValid() ? Decimals.toString(getMantissa(), getScale()) : "invalid";
+    }
+}
@@ -0,0 +1,86 @@
+package com.nikolov.utilslib.primitives;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Integer written as fixed width ASCII digits, e.g. {@code "  -1234"} or {@code "0001234"}.
+ * The digits may be padded with leading spaces or zeros and trailing spaces, and may have a leading sign.
+ * <p>
+ * The translators parse the field straight from the buffer bytes. A malformed field does not throw,
+ * it leaves the value invalid instead, see {@link #isValid()}.
+ */
+public class AsciiIntegerValue implements PrimitiveValue<Long> {
+
+    /**
+     * Marks a malformed field. Long.MIN_VALUE itself can not be represented.
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private final int width;
+    private final int scale;
+    private long mantissa = INVALID;
+
+    /**
+     * @param width field width in bytes
+     */
+    public AsciiIntegerValue(int width) {
+        this(width, 0);
+    }
+
+    protected AsciiIntegerValue(int width, int scale) {
+        if (width <= 0) {
+            throw new InvalidParameterException("Width must be positive");
+        }
+        Decimals.assertScale(scale);
+        this.width = width;
+        this.scale = scale;
+    }
+
+    /**
+     * @return number of fraction digits, 0 for integers
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    public boolean isValid() {
+        return mantissa != INVALID;
+    }
+
+    /**
+     * @return parsed value, or {@link #INVALID} for a malformed field
+     */
+    public long getMantissa() {
+        return mantissa;
+    }
+
+    /**
+     * @param mantissa parsed value, or {@link #INVALID} for a malformed field
+     */
+    public void setMantissa(long mantissa) {
+        this.mantissa = mantissa;
+    }
+
+    @Override
+    public int getBytesCount() {
+        return width;
+    }
+
+    /**
+     * @return parsed value or null for a malformed field
+     */
+    @Override
+    public Long getValue() {
+        return isValid() ? mantissa : null;
+    }
+
+    @Override
+    public void setValue(Long value) {
+        this.mantissa = value == null ? INVALID : value;
+    }
+
+    @Override
+    public Class<?> getType() {
+        return Long.class;
+    }
+}
@@ -0,0 +1,107 @@
+package com.nikolov.utilslib.primitives;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.security.InvalidParameterException;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+
+/**
+ * Fixed point decimal stored as a scaled integer, e.g. a price sent as INT64 with an implied exponent of -8
+ * is a {@code DecimalValue(INT64, 8)}. The field is decoded like any {@link NumberValue} of its primitive type,
+ * but the value is kept as an unscaled long mantissa, so no {@link BigDecimal} or double is needed to work with it.
+ * <p>
+ * Supported types are the signed ones and the unsigned ones up to UINT32. See {@link Decimals} for the arithmetic.
+ */
+public class DecimalValue extends NumberValue<Number> implements Comparable<DecimalValue> {
+
+    private final int scale;
+    private long mantissa;
+
+    /**
+     * @param type  integral type the mantissa is stored as
+     * @param scale number of fraction digits, i.e. the negated exponent
+     */
+    public DecimalValue(PrimitiveType type, int scale) {
+        super(type);
+        if (type.isOfType(UINT64) || type.isOfType(FLOAT) || type.isOfType(DOUBLE)) {
+            throw new InvalidParameterException("Decimal mantissa must be a signed type or an unsigned one up to UINT32");
+        }
+        Decimals.assertScale(scale);
+        this.scale = scale;
+    }
+
+    public DecimalValue(PrimitiveType type, int scale, long mantissa) {
+        this(type, scale);
+        this.mantissa = mantissa;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public long getMantissa() {
+        return mantissa;
+    }
+
+    public void setMantissa(long mantissa) {
+        this.mantissa = mantissa;
+    }
+
+    /**
+     * @return mantissa as a Long
+     */
+    @Override
+    public Number getWrap() {
+        return mantissa;
+    }
+
+    /**
+     * @param wrap mantissa, as decoded for the primitive type
+     */
+    @Override
+    public void setWrap(Number wrap) {
+        this.mantissa = wrap.longValue();
+    }
+
+    @Override
+    public Number getValue() {
+        return getWrap();
+    }
+
+    @Override
+    public void setValue(Number value) {
+        setWrap(value);
+    }
+
+    public double toDouble() {
+        return Decimals.toDouble(mantissa, scale);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(mantissa, scale);
+    }
+
+    /**
+     * Writes the value in plain notation without creating objects.
+     *
+     * @param out where to write
+     * @throws IOException if the appendable throws it
+     */
+    public void formatTo(Appendable out) throws IOException {
+        Decimals.format(mantissa, scale, out);
+    }
+
+    /**
+     * Compares by value, whatever the scales.
+     */
+    @Override
+    public int compareTo(DecimalValue other) {
+        return Decimals.compare(mantissa, scale, other.mantissa, other.scale);
+    }
+
+    @Override
+    public String toString() {
+        return Decimals.toString(mantissa, scale);
+    }
+}
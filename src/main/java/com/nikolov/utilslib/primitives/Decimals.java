@@ -0,0 +1,300 @@
+package com.nikolov.utilslib.primitives;
+
+import java.io.IOException;
+import java.security.InvalidParameterException;
+
+/**
+ * Allocation free arithmetic, comparison and formatting of fixed point decimals kept as
+ * an unscaled long mantissa and a scale, where the value is {@code mantissa * 10^-scale}.
+ * E.g. mantissa 12345 with scale 2 is 123.45. Scales from -18 to 18 are supported.
+ * <p>
+ * Operations that overflow a long throw {@link ArithmeticException}. Rounding, where needed, is half up.
+ */
+public abstract class Decimals {
+
+    public static final int MAX_SCALE = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[MAX_SCALE + 1];
+
+    static {
+        long power = 1;
+        for (int i = 0; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = power;
+            DOUBLE_POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    private Decimals() {
+    }
+
+    /**
+     * @param exponent 0 to 18
+     * @return 10 raised to the exponent
+     */
+    public static long powerOfTen(int exponent) {
+        return POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * Changes the scale of a mantissa, rounding half up when digits are dropped.
+     *
+     * @param mantissa  unscaled value
+     * @param fromScale current scale
+     * @param toScale   wanted scale
+     * @return mantissa at the wanted scale
+     */
+    public static long rescale(long mantissa, int fromScale, int toScale) {
+        assertScale(fromScale);
+        assertScale(toScale);
+        return shift(mantissa, toScale - fromScale);
+    }
+
+    public static long add(long a, int scaleA, long b, int scaleB, int resultScale) {
+        int scale = Math.max(scaleA, scaleB);
+        long sum = Math.addExact(rescale(a, scaleA, scale), rescale(b, scaleB, scale));
+        return rescale(sum, scale, resultScale);
+    }
+
+    public static long subtract(long a, int scaleA, long b, int scaleB, int resultScale) {
+        int scale = Math.max(scaleA, scaleB);
+        long difference = Math.subtractExact(rescale(a, scaleA, scale), rescale(b, scaleB, scale));
+        return rescale(difference, scale, resultScale);
+    }
+
+    /**
+     * Multiplies two decimals. The exact product, of scale {@code scaleA + scaleB}, is kept in 128 bits,
+     * so only the result at {@code resultScale} has to fit in a long; e.g. two prices of scale 8 can be
+     * multiplied into a scale 8 result.
+     */
+    public static long multiply(long a, int scaleA, long b, int scaleB, int resultScale) {
+        assertScale(scaleA);
+        assertScale(scaleB);
+        assertScale(resultScale);
+        int scale = scaleA + scaleB;
+        long lo = a * b;
+        long hi = multiplyHigh(a, b);
+        if (hi == (lo >> 63)) {
+            // The product fits in a long
+            return shift(lo, resultScale - scale);
+        }
+        if (resultScale >= scale) {
+            throw new ArithmeticException("long overflow");
+        }
+
+        // Work on the unsigned 128 bit magnitude
+        boolean negative = hi < 0;
+        if (negative) {
+            lo = -lo;
+            hi = ~hi + (lo == 0 ? 1 : 0);
+        }
+        // Divide by 10^digits in steps of at most 10^9. Every step divides by an even power of ten,
+        // so rounding half up only depends on the remainder of the last one
+        long remainder = 0;
+        long divisor = 1;
+        for (int remaining = scale - resultScale; remaining > 0; remaining -= 9) {
+            divisor = POWERS_OF_TEN[Math.min(remaining, 9)];
+            long n = hi >>> 32;
+            long h1 = n / divisor;
+            n = ((n % divisor) << 32) | (hi & 0xFFFFFFFFL);
+            long h0 = n / divisor;
+            n = ((n % divisor) << 32) | (lo >>> 32);
+            long l1 = n / divisor;
+            n = ((n % divisor) << 32) | (lo & 0xFFFFFFFFL);
+            long l0 = n / divisor;
+            remainder = n % divisor;
+            hi = (h1 << 32) | h0;
+            lo = (l1 << 32) | l0;
+        }
+        long roundUp = remainder >= divisor - remainder ? 1 : 0;
+        // The magnitude may only reach 2^63 for a negative result
+        long limit = Long.MAX_VALUE + (negative ? 1 : 0) - roundUp;
+        if (hi != 0 || Long.compareUnsigned(lo, limit) > 0) {
+            throw new ArithmeticException("long overflow");
+        }
+        long quotient = lo + roundUp;
+        return negative ? -quotient : quotient;
+    }
+
+    /**
+     * Multiplies a decimal by an integer, keeping its scale.
+     */
+    public static long multiply(long mantissa, long factor) {
+        return Math.multiplyExact(mantissa, factor);
+    }
+
+    /**
+     * Compares two decimals by value, whatever their scales.
+     *
+     * @return negative, zero or positive like {@link Long#compare(long, long)}
+     */
+    public static int compare(long a, int scaleA, long b, int scaleB) {
+        if (scaleA == scaleB) {
+            return Long.compare(a, b);
+        }
+        if (scaleA < scaleB) {
+            return -compare(b, scaleB, a, scaleA);
+        }
+
+        // scaleA > scaleB, bring b up to the scale of a
+        assertScale(scaleA);
+        assertScale(scaleB);
+        if (scaleA - scaleB > MAX_SCALE) {
+            // Any non zero b is at least 10^19 at the scale of a, further from zero than any long
+            return b == 0 ? Long.signum(a) : (b > 0 ? -1 : 1);
+        }
+        long power = POWERS_OF_TEN[scaleA - scaleB];
+        long scaledB = b * power;
+        if (b != 0 && (scaledB / power != b)) {
+            // b overflows at the scale of a, so it is further from zero than a
+            return b > 0 ? -1 : 1;
+        }
+        return Long.compare(a, scaledB);
+    }
+
+    public static double toDouble(long mantissa, int scale) {
+        assertScale(scale);
+        return scale >= 0 ? mantissa / DOUBLE_POWERS_OF_TEN[scale] : mantissa * DOUBLE_POWERS_OF_TEN[-scale];
+    }
+
+    /**
+     * Writes a decimal in plain notation, e.g. {@code -0.05} for mantissa -5 and scale 2,
+     * with exactly {@code scale} fraction digits.
+     *
+     * @param mantissa unscaled value
+     * @param scale    scale
+     * @param out      where to write
+     * @throws IOException if the appendable throws it
+     */
+    public static void format(long mantissa, int scale, Appendable out) throws IOException {
+        assertScale(scale);
+        if (mantissa < 0) {
+            out.append('-');
+        }
+        // The magnitude is handled as unsigned, which also covers Long.MIN_VALUE
+        long magnitude = mantissa < 0 ? -mantissa : mantissa;
+
+        int digits = unsignedDigits(magnitude);
+        if (scale <= 0) {
+            appendDigits(magnitude, digits, digits, out);
+            if (magnitude != 0) {
+                for (int i = 0; i < -scale; i++) {
+                    out.append('0');
+                }
+            }
+            return;
+        }
+
+        if (digits <= scale) {
+            out.append('0');
+        } else {
+            appendDigits(magnitude, digits, digits - scale, out);
+        }
+        out.append('.');
+        appendDigits(magnitude, scale, scale, out);
+    }
+
+    /**
+     * Same as {@link #format(long, int, Appendable)}, for appendables that do not throw.
+     */
+    public static void format(long mantissa, int scale, StringBuilder out) {
+        try {
+            format(mantissa, scale, (Appendable) out);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String toString(long mantissa, int scale) {
+        StringBuilder sb = new StringBuilder(24);
+        format(mantissa, scale, sb);
+        return sb.toString();
+    }
+
+    static void assertScale(int scale) {
+        if (scale < -MAX_SCALE || scale > MAX_SCALE) {
+            throw new InvalidParameterException("Scale must be between -" + MAX_SCALE + " and " + MAX_SCALE);
+        }
+    }
+
+    /**
+     * Multiplies by 10^digits, or divides by 10^-digits rounding half up, for digits from -36 to 36.
+     */
+    private static long shift(long mantissa, int digits) {
+        if (digits == 0 || mantissa == 0) {
+            return mantissa;
+        }
+        if (digits > 0) {
+            if (digits > MAX_SCALE) {
+                throw new ArithmeticException("long overflow");
+            }
+            return Math.multiplyExact(mantissa, POWERS_OF_TEN[digits]);
+        }
+        if (-digits > MAX_SCALE + 1) {
+            return 0;
+        }
+        if (-digits > MAX_SCALE) {
+            // Dividing by 10^19 leaves 0 or, from half of it on, one
+            long half = 5 * POWERS_OF_TEN[MAX_SCALE];
+            return mantissa >= half ? 1 : (mantissa <= -half ? -1 : 0);
+        }
+        return divideRounded(mantissa, POWERS_OF_TEN[-digits]);
+    }
+
+    /**
+     * High 64 bits of the signed 128 bit product, as {@code Math.multiplyHigh} does from Java 9 on.
+     */
+    static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y2 = y & 0xFFFFFFFFL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = (t & 0xFFFFFFFFL) + x2 * y1;
+        long z0 = t >> 32;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    private static long divideRounded(long value, long divisor) {
+        long quotient = value / divisor;
+        long remainder = value % divisor;
+        // Half up, away from zero on ties
+        if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+            quotient += value < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Appends the digits from position {@code from} (counting from the right, exclusive) down,
+     * taking {@code count} of them.
+     */
+    private static void appendDigits(long unsigned, int from, int count, Appendable out) throws IOException {
+        for (int position = from - 1; position >= from - count; position--) {
+            out.append((char) ('0' + unsignedDigitAt(unsigned, position)));
+        }
+    }
+
+    private static int unsignedDigitAt(long unsigned, int position) {
+        if (position > MAX_SCALE) {
+            // Only the 20th digit of the largest unsigned values
+            return (int) Long.divideUnsigned(unsigned, POWERS_OF_TEN[MAX_SCALE] * 10);
+        }
+        return (int) Long.remainderUnsigned(Long.divideUnsigned(unsigned, POWERS_OF_TEN[position]), 10);
+    }
+
+    private static int unsignedDigits(long unsigned) {
+        if (unsigned < 0) {
+            // At least 2^63, which has 19 digits; values from 10^19 up have 20
+            return Long.compareUnsigned(unsigned, POWERS_OF_TEN[MAX_SCALE] * 10) >= 0 ? 20 : 19;
+        }
+        int digits = 1;
+        while (digits <= MAX_SCALE && unsigned >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,99 @@
+package com.nikolov.utilslib.primitives;
+
+import java.util.Arrays;
+
+/**
+ * Template field holding a delta, delta of delta or frame of reference encoded block of integers,
+ * e.g. the timestamps of a batch of records. The translators decode the block into a reusable long array.
+ * <p>
+ * The block is self describing, so the field length is only known once it has been read:
+ * {@link #getBytesCount()} returns the length of the last decoded block. Because of that the field is supported
+ * by the sequential template paths only, not by projections or other fixed layout helpers.
+ *
+ * @see com.nikolov.utilslib.bytes.codec.ColumnCodec
+ */
+public class EncodedColumnValue implements PrimitiveValue<long[]> {
+
+    private long[] values;
+    private int count;
+    private int bytesCount;
+
+    public EncodedColumnValue() {
+        this(16);
+    }
+
+    /**
+     * @param capacity initial number of values room is made for
+     */
+    public EncodedColumnValue(int capacity) {
+        this.values = new long[capacity];
+    }
+
+    /**
+     * @param capacity number of values to make room for
+     * @return backing array with room for at least the given number of values
+     */
+    public long[] ensureCapacity(int capacity) {
+        if (values.length < capacity) {
+            values = new long[Math.max(capacity, values.length * 2)];
+        }
+        return values;
+    }
+
+    /**
+     * @return backing array; only the first {@link #getCount()} entries are values
+     */
+    public long[] getValues() {
+        return values;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long get(int i) {
+        if (i < 0 || i >= count) {
+            throw new ArrayIndexOutOfBoundsException(i);
+        }
+        return values[i];
+    }
+
+    /**
+     * Records a block decoded into the backing array.
+     *
+     * @param count      number of decoded values
+     * @param bytesCount length of the encoded block
+     */
+    public void setDecoded(int count, int bytesCount) {
+        this.count = count;
+        this.bytesCount = bytesCount;
+    }
+
+    /**
+     * @return length of the last decoded block in bytes
+     */
+    @Override
+    public int getBytesCount() {
+        return bytesCount;
+    }
+
+    /**
+     * @return copy of the values
+     */
+    @Override
+    public long[] getValue() {
+        return Arrays.copyOf(values, count);
+    }
+
+    @Override
+    public void setValue(long[] value) {
+        this.values = value.clone();
+        this.count = value.length;
+        this.bytesCount = 0;
+    }
+
+    @Override
+    public Class<?> getType() {
+        return long[].class;
+    }
+}
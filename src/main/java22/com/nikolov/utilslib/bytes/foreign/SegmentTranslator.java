@@ -0,0 +1,189 @@
+package com.nikolov.utilslib.bytes.foreign;
+
+import com.nikolov.utilslib.bytes.AsciiNumbers;
+import com.nikolov.utilslib.bytes.codec.ColumnCodec;
+import com.nikolov.utilslib.bytes.exceptions.BufferEmptyException;
+import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
+import com.nikolov.utilslib.primitives.*;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.InvalidParameterException;
+import java.util.Objects;
+
+/**
+ * Works like {@link com.nikolov.utilslib.bytes.FromBytesTranslator}, but over a {@link MemorySegment}, so it can
+ * read native memory, direct buffers ({@link MemorySegment#ofBuffer}) and mapped files larger than 2 GB.
+ * Positions are longs.
+ * <p>
+ * A translator keeps a position and is meant for one thread. To read a shared segment (e.g. one mapped with
+ * {@link Arena#ofShared()}) from many threads, give every thread its own translator over the same segment.
+ * <p>
+ * Needs Java 22 or later and ships in the separate utils-library-foreign artifact.
+ */
+public class SegmentTranslator {
+
+    private MemorySegment segment;
+    private ByteOrder order = ByteOrder.BIG_ENDIAN;
+    private long positionIndex;
+
+    /**
+     * Maps a whole file read only, whatever its size.
+     *
+     * @param file  file to map
+     * @param arena arena that controls how long the mapping lives
+     * @return mapped segment
+     * @throws IOException if the file can not be mapped
+     */
+    public static MemorySegment map(Path file, Arena arena) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+        }
+    }
+
+    public void wrap(MemorySegment segment) {
+        this.segment = segment;
+        this.positionIndex = 0;
+    }
+
+    public void wrap(MemorySegment segment, ByteOrder order) {
+        wrap(segment);
+        setOrder(order);
+    }
+
+    public MemorySegment getSegment() {
+        return segment;
+    }
+
+    public void setOrder(ByteOrder order) {
+        this.order = order;
+    }
+
+    public ByteOrder getOrder() {
+        return order;
+    }
+
+    public boolean isBufferEmpty() {
+        return segment == null || segment.byteSize() == 0;
+    }
+
+    public long getBufferPositionIndex() {
+        return positionIndex;
+    }
+
+    public void resetBufferPositionIndex() {
+        this.positionIndex = 0;
+    }
+
+    public void setBufferPositionIndex(long position) {
+        this.positionIndex = position;
+    }
+
+    public boolean hasMoreToRead() {
+        return segment != null && positionIndex < segment.byteSize();
+    }
+
+    public boolean canReadValue(long bytesToRead) {
+        return segment != null && positionIndex >= 0 && bytesToRead >= 0
+                && segment.byteSize() - positionIndex >= bytesToRead;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends Number> PrimitiveValue<T> getNumber(PrimitiveType type) {
+        if (type == null) {
+            throw new InvalidParameterException();
+        }
+        assertReadable(type.getBytesCount());
+        Number value = SegmentValues.getNumber(segment, positionIndex, type, order);
+        positionIndex += type.getBytesCount();
+        return new NumberValue<>(type, (T) value);
+    }
+
+    public PrimitiveValue<String> getString(int length) {
+        assertReadable(length);
+        String value = readString(positionIndex, length);
+        positionIndex += length;
+        return new StringValue(value);
+    }
+
+    public PrimitiveValue<Byte[]> getByteArray(int length) {
+        assertReadable(length);
+        Byte[] value = readByteArray(positionIndex, length);
+        positionIndex += length;
+        return new ByteArrayValue(value);
+    }
+
+    /**
+     * Fills the template with consecutive values, starting at the position index.
+     *
+     * @param template template to fill
+     */
+    @SuppressWarnings("unchecked")
+    public void processTemplatedValues(PrimitiveValue[] template) {
+        for (PrimitiveValue pv : template) {
+            if (pv instanceof EncodedColumnValue) {
+                readColumn((EncodedColumnValue) pv);
+                continue;
+            }
+            assertReadable(pv.getBytesCount());
+
+            Class<?> type = pv.getType();
+            if (pv instanceof AsciiIntegerValue) {
+                AsciiIntegerValue ascii = (AsciiIntegerValue) pv;
+                ByteBuffer field = segment.asSlice(positionIndex, ascii.getBytesCount()).asByteBuffer();
+                ascii.setMantissa(AsciiNumbers.parseDecimal(field, 0, ascii.getBytesCount(), ascii.getScale()));
+            } else if (Objects.equals(type, Number.class)) {
+                pv.setValue(SegmentValues.getNumber(segment, positionIndex, ((NumberValue) pv).getPrimitiveType(),
+                        order));
+            } else if (Objects.equals(type, String.class)) {
+                pv.setValue(readString(positionIndex, pv.getBytesCount()));
+            } else if (Objects.equals(type, Byte[].class)) {
+                pv.setValue(readByteArray(positionIndex, pv.getBytesCount()));
+            } else {
+                throw new InvalidParameterException("Template value type is not supported");
+            }
+            positionIndex += pv.getBytesCount();
+        }
+    }
+
+    private void readColumn(EncodedColumnValue value) {
+        assertReadable(ColumnCodec.HEADER_BYTES);
+        long available = Math.min(segment.byteSize() - positionIndex, Integer.MAX_VALUE);
+        ByteBuffer block = segment.asSlice(positionIndex, available).asByteBuffer().order(order);
+        int length = ColumnCodec.blockLength(block, 0);
+        int count = ColumnCodec.valueCount(block, 0);
+        ColumnCodec.decode(block, 0, value.ensureCapacity(count), 0);
+        value.setDecoded(count, length);
+        positionIndex += length;
+    }
+
+    private String readString(long offset, int length) {
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, offset, bytes, 0, length);
+        return new String(bytes);
+    }
+
+    private Byte[] readByteArray(long offset, int length) {
+        Byte[] res = new Byte[length];
+        for (int i = 0; i < length; i++) {
+            res[i] = segment.get(ValueLayout.JAVA_BYTE, offset + i);
+        }
+        return res;
+    }
+
+    private void assertReadable(long bytesToRead) {
+        if (isBufferEmpty()) {
+            throw new BufferEmptyException();
+        }
+        if (!canReadValue(bytesToRead)) {
+            throw new UnexpectedArrayLengthException();
+        }
+    }
+}
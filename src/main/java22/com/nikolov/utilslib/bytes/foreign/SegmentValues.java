@@ -0,0 +1,124 @@
+package com.nikolov.utilslib.bytes.foreign;
+
+import com.nikolov.utilslib.primitives.PrimitiveType;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.security.InvalidParameterException;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+
+/**
+ * Reads primitive values from a {@link MemorySegment} at a long offset, like
+ * {@link com.nikolov.utilslib.bytes.RawValues} does for buffers. Works for heap, native and mapped segments
+ * of any size. The reads keep no state, so a shared segment can be read from many threads at once.
+ * <p>
+ * Needs Java 22 or later and ships in the separate utils-library-foreign artifact.
+ */
+public abstract class SegmentValues {
+
+    private static final ValueLayout.OfShort SHORT_BE = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfShort SHORT_LE = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfInt INT_BE = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfInt INT_LE = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG_BE = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG_LE = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfFloat FLOAT_BE = ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfFloat FLOAT_LE = ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfDouble DOUBLE_BE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfDouble DOUBLE_LE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private SegmentValues() {
+    }
+
+    public static short getShort(MemorySegment segment, long offset, ByteOrder order) {
+        return segment.get(order == ByteOrder.BIG_ENDIAN ? SHORT_BE : SHORT_LE, offset);
+    }
+
+    public static int getInt(MemorySegment segment, long offset, ByteOrder order) {
+        return segment.get(order == ByteOrder.BIG_ENDIAN ? INT_BE : INT_LE, offset);
+    }
+
+    public static long getLong(MemorySegment segment, long offset, ByteOrder order) {
+        return segment.get(order == ByteOrder.BIG_ENDIAN ? LONG_BE : LONG_LE, offset);
+    }
+
+    public static float getFloat(MemorySegment segment, long offset, ByteOrder order) {
+        return segment.get(order == ByteOrder.BIG_ENDIAN ? FLOAT_BE : FLOAT_LE, offset);
+    }
+
+    public static double getDouble(MemorySegment segment, long offset, ByteOrder order) {
+        return segment.get(order == ByteOrder.BIG_ENDIAN ? DOUBLE_BE : DOUBLE_LE, offset);
+    }
+
+    /**
+     * Reads an integral value as a Java long. Signed types are sign extended, unsigned
+     * types are zero extended. UINT64 values are returned as their raw bits.
+     *
+     * @param segment segment with data
+     * @param offset  offset of the value
+     * @param type    integral {@link PrimitiveType}
+     * @param order   byte order of the value
+     * @return the value as a long
+     */
+    public static long getLong(MemorySegment segment, long offset, PrimitiveType type, ByteOrder order) {
+        switch (type.getId()) {
+            case 1: // INT8
+                return segment.get(ValueLayout.JAVA_BYTE, offset);
+            case 2: // INT16
+                return getShort(segment, offset, order);
+            case 3: // INT32
+                return getInt(segment, offset, order);
+            case 4: // INT64
+            case 8: // UINT64
+                return getLong(segment, offset, order);
+            case 5: // UINT8
+                return segment.get(ValueLayout.JAVA_BYTE, offset) & 0xFFL;
+            case 6: // UINT16
+                return getShort(segment, offset, order) & 0xFFFFL;
+            case 7: // UINT32
+                return getInt(segment, offset, order) & 0xFFFFFFFFL;
+            default:
+                throw new InvalidParameterException("Primitive type is not integral");
+        }
+    }
+
+    /**
+     * Reads a value as the same Java type the {@link com.nikolov.utilslib.bytes.FromBytesTranslator} getters
+     * produce, e.g. Short for UINT8 and BigInteger for UINT64.
+     *
+     * @param segment segment with data
+     * @param offset  offset of the value
+     * @param type    {@link PrimitiveType} of the value
+     * @param order   byte order of the value
+     * @return boxed value
+     */
+    public static Number getNumber(MemorySegment segment, long offset, PrimitiveType type, ByteOrder order) {
+        switch (type.getId()) {
+            case 1: // INT8
+                return segment.get(ValueLayout.JAVA_BYTE, offset);
+            case 2: // INT16
+                return getShort(segment, offset, order);
+            case 3: // INT32
+                return getInt(segment, offset, order);
+            case 4: // INT64
+                return getLong(segment, offset, order);
+            case 5: // UINT8
+                return (short) (segment.get(ValueLayout.JAVA_BYTE, offset) & 0xFF);
+            case 6: // UINT16
+                return getShort(segment, offset, order) & 0xFFFF;
+            case 7: // UINT32
+                return getInt(segment, offset, order) & 0xFFFFFFFFL;
+            case 8: // UINT64
+                return new BigInteger(Long.toUnsignedString(getLong(segment, offset, order)));
+            case 9: // FLOAT
+                return getFloat(segment, offset, order);
+            case 10: // DOUBLE
+                return getDouble(segment, offset, order);
+            default:
+                throw new InvalidParameterException("Primitive type id is not valid");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.nikolov.utilslib.arrays;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class BytePatternTest {
+
+    private static int naiveIndexOf(byte[] array, byte[] pattern, int from, int to) {
+        outer:
+        for (int i = from; i <= to - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (array[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    @Test
+    public void whenSearchingArrayItShouldReturnIndexOfFirstMatch() {
+        byte[] array = {1, 2, 3, 4, 5, 56, 67, 8, 9, 10, 56, 67, 68, 13};
+        BytePattern pattern = BytePattern.of((byte) 56, (byte) 67, (byte) 68);
+
+        assertEquals(10, pattern.indexOf(array));
+        assertEquals(-1, pattern.indexOf(array, 0, 12));
+        assertEquals(-1, BytePattern.of((byte) 99).indexOf(array));
+        assertEquals(13, BytePattern.of((byte) 13).indexOf(array));
+    }
+
+    @Test
+    public void whenSearchingRandomDataItShouldAgreeWithNaiveSearch() {
+        Random random = new Random(42);
+        byte[] array = new byte[5000];
+        for (int i = 0; i < array.length; i++) {
+            // Small alphabet, so there are many candidates and matches
+            array[i] = (byte) (random.nextInt(4) - 2);
+        }
+
+        for (int length = 1; length <= 12; length++) {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) (random.nextInt(4) - 2);
+            }
+            BytePattern pattern = BytePattern.of(bytes);
+            for (int from = 0; from < 40; from += 3) {
+                int to = array.length - from * 7;
+                assertEquals(naiveIndexOf(array, bytes, from, to), pattern.indexOf(array, from, to));
+            }
+        }
+    }
+
+    @Test
+    public void whenIteratingMatchesInDirectBufferItShouldReportAllOfThem() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        buffer.put(new byte[]{0, 0, 0, -1, -1, -1, 0, 0, 0, 0, 0, 0, -1, -1});
+        buffer.position(20);
+        buffer.put(new byte[]{-1, -1});
+        buffer.position(1);
+
+        List<Integer> matches = new ArrayList<>();
+        int count = BytePattern.of((byte) -1, (byte) -1).forEachMatch(buffer, 0, 64, matches::add);
+
+        assertEquals(4, count);
+        assertArrayEquals(new Integer[]{3, 4, 12, 20}, matches.toArray(new Integer[0]));
+        assertEquals(1, buffer.position());
+        assertEquals(3, BytePattern.of((byte) -1).indexOf(buffer));
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void whenSearchingOutOfBoundsItShouldThrowException() {
+        BytePattern.of((byte) 1).indexOf(new byte[4], 0, 5);
+    }
+}
@@ -0,0 +1,120 @@
+package com.nikolov.utilslib.bytes;
+
+import com.nikolov.utilslib.primitives.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.nikolov.utilslib.bytes.AsciiNumbers.INVALID;
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class AsciiNumbersTest {
+
+    private static long parseLong(String field) {
+        return AsciiNumbers.parseLong(ByteBuffer.wrap(field.getBytes()), 0, field.length());
+    }
+
+    private static long parseDecimal(String field, int scale) {
+        return AsciiNumbers.parseDecimal(ByteBuffer.wrap(field.getBytes()), 0, field.length(), scale);
+    }
+
+    @Test
+    public void whenParsingPaddedIntegersItShouldReturnValues() {
+        assertEquals(1234, parseLong("1234"));
+        assertEquals(1234, parseLong("    1234"));
+        assertEquals(1234, parseLong("00000000000001234"));
+        assertEquals(-1234, parseLong("        -1234"));
+        assertEquals(1234, parseLong("+1234   "));
+        assertEquals(0, parseLong("0000000000000000"));
+        assertEquals(12345678901234567L, parseLong("12345678901234567"));
+        assertEquals(Long.MAX_VALUE, parseLong("9223372036854775807"));
+        assertEquals(-Long.MAX_VALUE, parseLong("   -9223372036854775807"));
+    }
+
+    @Test
+    public void whenParsingMalformedIntegersItShouldReturnInvalid() {
+        assertEquals(INVALID, parseLong("        "));
+        assertEquals(INVALID, parseLong("-"));
+        assertEquals(INVALID, parseLong("12 34"));
+        assertEquals(INVALID, parseLong("1234567a"));
+        assertEquals(INVALID, parseLong("12345678:"));
+        assertEquals(INVALID, parseLong("12.5"));
+        assertEquals(INVALID, parseLong("9223372036854775808"));
+        assertEquals(INVALID, parseLong("99999999999999999999999"));
+    }
+
+    @Test
+    public void whenParsingDecimalsItShouldScaleTheMantissa() {
+        assertEquals(1250, parseDecimal("  12.5", 2));
+        assertEquals(1250, parseDecimal("001250", 2));
+        assertEquals(-5, parseDecimal("-0.05", 2));
+        assertEquals(1200, parseDecimal("12.   ", 2));
+        assertEquals(12345678901234L, parseDecimal("123456.78901234", 8));
+        assertEquals(INVALID, parseDecimal("1.234", 2));
+        assertEquals(INVALID, parseDecimal("1.2.3", 2));
+        assertEquals(INVALID, parseDecimal("92233720368547758.07", 3));
+    }
+
+    @Test
+    public void whenParsingItShouldMatchParseLongWithEitherByteOrder() {
+        long[] values = {0, 7, 42, 99999999, 100000000, 123456789012L, -987654321, Long.MAX_VALUE};
+        for (long value : values) {
+            String field = String.format("%24d", value);
+            for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+                ByteBuffer bb = ByteBuffer.wrap(("xx" + field).getBytes()).order(order);
+                assertEquals(value, AsciiNumbers.parseLong(bb, 2, field.length()));
+            }
+        }
+    }
+
+    @Test
+    public void whenTranslatingTemplateWithAsciiFieldsItShouldParseThem() {
+        PrimitiveValue[] template = new PrimitiveValue[]{
+                new NumberValue(INT16),
+                new AsciiIntegerValue(10),
+                new AsciiDecimalValue(8, 2),
+                new AsciiIntegerValue(4),
+                new NumberValue(INT8)
+        };
+        ByteBuffer bb = ByteBuffer.allocate(25)
+                .putShort((short) 7)
+                .put("0000123456".getBytes())
+                .put("  -12.50".getBytes())
+                .put("12x4".getBytes())
+                .put((byte) 9);
+
+        FromBytesTranslator fbt = new FromBytesTranslator();
+        fbt.wrap(bb.array());
+        fbt.processTemplatedValues(template);
+        assertEquals((short) 7, template[0].getValue());
+        assertEquals(123456L, template[1].getValue());
+        assertEquals(-1250L, ((AsciiDecimalValue) template[2]).getMantissa());
+        assertEquals("-12.50", template[2].toString());
+        assertFalse(((AsciiIntegerValue) template[3]).isValid());
+        assertNull(template[3].getValue());
+        assertEquals((byte) 9, template[4].getValue());
+
+        fbt.resetBufferPositionIndex();
+        ((AsciiIntegerValue) template[1]).setValue(null);
+        fbt.processTemplatedValues(template, TemplateProjection.of(template, 1));
+        assertEquals(123456L, template[1].getValue());
+
+        CompositeTranslator ct = new CompositeTranslator();
+        byte[] array = bb.array();
+        byte[] first = new byte[6];
+        byte[] second = new byte[array.length - 6];
+        System.arraycopy(array, 0, first, 0, first.length);
+        System.arraycopy(array, 6, second, 0, second.length);
+        ct.wrap(first, second);
+        ((AsciiIntegerValue) template[1]).setValue(null);
+        ct.processTemplatedValues(template);
+        assertEquals(123456L, template[1].getValue());
+        assertEquals(-1250L, ((AsciiDecimalValue) template[2]).getMantissa());
+        assertEquals((byte) 9, template[4].getValue());
+    }
+}
@@ -0,0 +1,107 @@
+package com.nikolov.utilslib.bytes;
+
+import com.nikolov.utilslib.bytes.exceptions.BufferEmptyException;
+import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
+import com.nikolov.utilslib.primitives.*;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class CompositeTranslatorTest {
+
+    @Test
+    public void whenRecordIsSplitAtEveryPossiblePointItShouldDecodeTheSameValues() {
+        byte[] record = ByteBuffer.allocate(48)
+                .putInt(2478490)
+                .putLong(-98090880L)
+                .putDouble(89.0983)
+                .putShort((short) 2837)
+                .put("How are you?".getBytes())
+                .putShort((short) -25900)
+                .put(new byte[]{123, 4, 67, 9})
+                .putLong(-2L)
+                .array();
+        PrimitiveValue[] template = {new NumberValue(INT32), new NumberValue(INT64), new NumberValue(DOUBLE),
+                new NumberValue(INT16), new StringValue(12), new NumberValue(UINT16), new ByteArrayValue(4),
+                new NumberValue(UINT64)};
+
+        for (int split = 0; split <= record.length; split++) {
+            CompositeTranslator ct = new CompositeTranslator();
+            ct.wrap(Arrays.copyOfRange(record, 0, split), Arrays.copyOfRange(record, split, record.length));
+
+            ct.processTemplatedValues(template);
+            assertEquals(2478490, template[0].getValue());
+            assertEquals(-98090880L, template[1].getValue());
+            assertEquals(89.0983, template[2].getValue());
+            assertEquals((short) 2837, template[3].getValue());
+            assertEquals("How are you?", template[4].getValue());
+            assertEquals(39636, template[5].getValue());
+            Assert.assertArrayEquals(new Byte[]{123, 4, 67, 9}, (Byte[]) template[6].getValue());
+            assertEquals(new BigInteger("18446744073709551614"), template[7].getValue());
+            assertFalse(ct.hasMoreToRead());
+        }
+    }
+
+    @Test
+    public void whenChunksAreSingleBytesInDirectBuffersItShouldDecodeTheRecord() {
+        byte[] record = ByteBuffer.allocate(14).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(2478490)
+                .putShort((short) -25900)
+                .putLong(-98090880L)
+                .array();
+        ByteBuffer[] chunks = new ByteBuffer[record.length];
+        for (int i = 0; i < record.length; i++) {
+            chunks[i] = ByteBuffer.allocateDirect(1).put(record[i]);
+            chunks[i].flip();
+        }
+
+        CompositeTranslator ct = new CompositeTranslator();
+        ct.setOrder(ByteOrder.LITTLE_ENDIAN);
+        ct.wrap(chunks);
+        assertEquals(14, ct.getChunkCount());
+        assertEquals(14, ct.getLength());
+
+        PrimitiveValue[] template = {new NumberValue(INT32), new NumberValue(UINT16), new NumberValue(INT64)};
+        ct.processTemplatedValues(template);
+        assertEquals(2478490, template[0].getValue());
+        assertEquals(39636, template[1].getValue());
+        assertEquals(-98090880L, template[2].getValue());
+    }
+
+    @Test
+    public void whenReadingAtPositionItShouldFindTheRightChunk() {
+        CompositeTranslator ct = new CompositeTranslator();
+        ct.wrap(new byte[]{0, 1}, new byte[]{}, new byte[]{2, 3, 4}, new byte[]{5, 6, 7, 8});
+
+        assertEquals(3, ct.getChunkCount());
+        assertEquals(0x0405, ((Number) ct.getNumber(INT16, 4).getValue()).intValue());
+        assertEquals(6, ct.getBufferPositionIndex());
+        assertEquals(0x0102, ((Number) ct.getNumber(INT16, 1).getValue()).intValue());
+        PrimitiveValue<Number> nv = ct.getNumber(INT8);
+        assertEquals(3, nv.getValue().intValue());
+        assertEquals(4, ct.getBufferPositionIndex());
+    }
+
+    @Test(expected = UnexpectedArrayLengthException.class)
+    public void whenValueGoesPastTheLastChunkItShouldThrowException() {
+        CompositeTranslator ct = new CompositeTranslator();
+        ct.wrap(new byte[]{0, 1}, new byte[]{2, 3, 4});
+        ct.getNumber(INT32, 2);
+    }
+
+    @Test(expected = BufferEmptyException.class)
+    public void whenNothingIsWrappedItShouldThrowException() {
+        CompositeTranslator ct = new CompositeTranslator();
+        ct.getNumber(INT32);
+    }
+}
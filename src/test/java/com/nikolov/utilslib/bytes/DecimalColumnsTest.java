@@ -0,0 +1,91 @@
+package com.nikolov.utilslib.bytes;
+
+import com.nikolov.utilslib.primitives.DecimalValue;
+import com.nikolov.utilslib.primitives.NumberValue;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+import com.nikolov.utilslib.primitives.StringValue;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.InvalidParameterException;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class DecimalColumnsTest {
+
+    @Test
+    public void whenTranslatingTemplateWithDecimalsItShouldFillMantissas() {
+        PrimitiveValue[] template = {new StringValue(4), new DecimalValue(INT64, 8), new DecimalValue(UINT32, 2)};
+        FromBytesTranslator fbt = new FromBytesTranslator();
+        fbt.wrap(ByteBuffer.allocate(16).put("ABCD".getBytes()).putLong(-100_000_000L).putInt(-1).array());
+        fbt.processTemplatedValues(template);
+
+        DecimalValue price = (DecimalValue) template[1];
+        assertEquals(-100_000_000L, price.getMantissa());
+        assertEquals("-1.00000000", price.toString());
+        assertEquals("42949672.95", template[2].toString());
+    }
+
+    @Test
+    public void whenDecodingColumnOfBufferItShouldReadAllMantissas() {
+        PrimitiveValue[] template = {new DecimalValue(INT64, 8), new DecimalValue(UINT32, 2)};
+        ByteBuffer bb = ByteBuffer.allocate(100 * 12).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 100; i++) {
+            bb.putLong(-100_000_000L + i).putInt(-1 - i);
+        }
+        bb.flip();
+        bb.position(12 * 10);
+        DecimalColumns prices = DecimalColumns.of(template, 0);
+        DecimalColumns sizes = DecimalColumns.of(template, 1);
+        assertEquals(8, prices.getScale());
+
+        long[] mantissas = new long[200];
+        assertEquals(90, prices.decode(bb, mantissas, 5));
+        assertEquals(-100_000_000L + 10, mantissas[5]);
+        assertEquals(-100_000_000L + 99, mantissas[94]);
+        assertEquals(0, mantissas[95]);
+        assertEquals(12 * 10, bb.position());
+
+        long[] small = new long[3];
+        assertEquals(3, sizes.decode(bb, small, 0));
+        assertArrayEquals(new long[]{0xFFFFFFFFL - 10, 0xFFFFFFFFL - 11, 0xFFFFFFFFL - 12}, small);
+    }
+
+    @Test
+    public void whenDecodingColumnOfFileItShouldCrossWindows() throws IOException {
+        PrimitiveValue[] template = {new DecimalValue(INT64, 8)};
+        ByteBuffer bb = ByteBuffer.allocate(100 * 8);
+        for (int i = 0; i < 100; i++) {
+            bb.putLong(-100_000_000L + i);
+        }
+
+        Path file = Files.createTempFile("decimals", ".bin");
+        try {
+            Files.write(file, bb.array());
+            MappedRecordFile mapped = MappedRecordFile.open(file, 8, ByteOrder.BIG_ENDIAN, 8 * 7);
+            DecimalColumns prices = DecimalColumns.of(template, 0);
+
+            long[] mantissas = new long[50];
+            assertEquals(50, prices.decode(mapped, 3, mantissas, 0));
+            for (int i = 0; i < mantissas.length; i++) {
+                assertEquals(-100_000_000L + 3 + i, mantissas[i]);
+            }
+            assertEquals(0, prices.decode(mapped, 100, mantissas, 0));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void whenFieldIsNotDecimalItShouldThrowException() {
+        DecimalColumns.of(new PrimitiveValue[]{new NumberValue(INT64)}, 0);
+    }
+}
@@ -1,5 +1,6 @@
 package com.nikolov.utilslib.bytes;
 
+import com.nikolov.utilslib.arrays.BytePattern;
 import com.nikolov.utilslib.bytes.exceptions.BufferEmptyException;
 import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
 import com.nikolov.utilslib.primitives.*;
@@ -447,4 +448,123 @@ public class FromBytesTranslatorTest {
 
         fbt.processTemplatedValues(template);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenCallGetTemplatedValuesWithProjectionItShouldFillOnlyProjectedValues() {
+        PrimitiveValue[] template = new PrimitiveValue[]{
+                new NumberValue(INT32),
+                new NumberValue(INT64),
+                new NumberValue(DOUBLE),
+                new NumberValue(INT16),
+                new StringValue(12),
+                new NumberValue(UINT16),
+                new ByteArrayValue(4)
+        };
+
+        ByteBuffer bb = ByteBuffer.allocate(80);
+        for (int i = 0; i < 2; i++) {
+            bb.putInt(2478490 + i)
+                    .putLong(-98090880L)
+                    .putDouble(89.0983)
+                    .putShort((short) 2837)
+                    .put("How are you?".getBytes())
+                    .putShort((short) -25900)
+                    .put(new byte[]{123, 4, 67, (byte) i});
+        }
+        FromBytesTranslator fbt = new FromBytesTranslator();
+        fbt.wrap(bb.array());
+
+        TemplateProjection projection = TemplateProjection.of(template, 6, 0, 4, 5);
+        assertEquals(40, projection.getRecordLength());
+
+        fbt.processTemplatedValues(template, projection);
+        assertEquals(40, fbt.getBufferPositionIndex());
+        assertEquals(2478490, template[0].getValue());
+        assertNull(template[1].getValue());
+        assertNull(template[2].getValue());
+        assertNull(template[3].getValue());
+        assertEquals("How are you?", template[4].getValue());
+        assertEquals(39636, template[5].getValue());
+        Assert.assertArrayEquals(new Byte[]{123, 4, 67, 0}, (Byte[]) template[6].getValue());
+
+        fbt.processTemplatedValues(template, projection);
+        assertEquals(80, fbt.getBufferPositionIndex());
+        assertEquals(2478491, template[0].getValue());
+        Assert.assertArrayEquals(new Byte[]{123, 4, 67, 1}, (Byte[]) template[6].getValue());
+    }
+
+    @Test(expected = UnexpectedArrayLengthException.class)
+    public void whenCallGetTemplatedValuesWithProjectionAndShortBufferItShouldThrowException() {
+        PrimitiveValue[] template = new PrimitiveValue[]{
+                new NumberValue(INT32),
+                new NumberValue(INT64)
+        };
+
+        FromBytesTranslator fbt = new FromBytesTranslator();
+        fbt.wrap(new byte[10]);
+
+        fbt.processTemplatedValues(template, TemplateProjection.of(template, 0));
+    }
+
+    @Test
+    public void whenCallGetTemplatedValuesUncheckedItShouldFillValuesLikeTheCheckedPath() {
+        PrimitiveValue[] template = new PrimitiveValue[]{
+                new NumberValue(INT32),
+                new NumberValue(UINT64),
+                new StringValue(3),
+                new AsciiIntegerValue(4),
+                new ByteArrayValue(2)
+        };
+        ByteBuffer bb = ByteBuffer.allocate(50)
+                .putInt(-77)
+                .putLong(-1L)
+                .put("abc".getBytes())
+                .put("  42".getBytes())
+                .put(new byte[]{5, 6})
+                .putInt(1);
+
+        FromBytesTranslator fbt = new FromBytesTranslator();
+        fbt.wrap(bb.array());
+        fbt.processTemplatedValuesUnchecked(template);
+        assertEquals(21, fbt.getBufferPositionIndex());
+        assertEquals(-77, template[0].getValue());
+        assertEquals(new BigInteger("18446744073709551615"), template[1].getValue());
+        assertEquals("abc", template[2].getValue());
+        assertEquals(42L, template[3].getValue());
+        Assert.assertArrayEquals(new Byte[]{5, 6}, (Byte[]) template[4].getValue());
+
+        // A second record fits, then only 8 bytes are left and the position stays put
+        try {
+            fbt.processTemplatedValuesUnchecked(template);
+            fbt.processTemplatedValuesUnchecked(template);
+            fail();
+        } catch (UnexpectedArrayLengthException e) {
+            assertEquals(42, fbt.getBufferPositionIndex());
+        }
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void whenCallGetTemplatedValuesUncheckedWithVariableLengthFieldItShouldThrowException() {
+        FromBytesTranslator fbt = new FromBytesTranslator();
+        fbt.wrap(new byte[100]);
+        fbt.processTemplatedValuesUnchecked(new PrimitiveValue[]{new EncodedColumnValue()});
+    }
+
+    @Test
+    public void whenCallSeekItShouldMoveToTheNextOccurrenceOfThePattern() {
+        byte[] array = {0, 1, 2, 0x7E, 0x7E, 5, 6, 0x7E, 0x7E, 9};
+        BytePattern sync = BytePattern.of((byte) 0x7E, (byte) 0x7E);
+
+        FromBytesTranslator fbt = new FromBytesTranslator();
+        fbt.wrap(array);
+
+        assertTrue(fbt.seek(sync));
+        assertEquals(3, fbt.getBufferPositionIndex());
+        fbt.setBufferPositionIndex(4);
+        assertTrue(fbt.seek(sync));
+        assertEquals(7, fbt.getBufferPositionIndex());
+        fbt.setBufferPositionIndex(8);
+        assertFalse(fbt.seek(sync));
+        assertEquals(8, fbt.getBufferPositionIndex());
+    }
+}
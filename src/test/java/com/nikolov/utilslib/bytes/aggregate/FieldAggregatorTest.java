@@ -0,0 +1,142 @@
+package com.nikolov.utilslib.bytes.aggregate;
+
+import com.nikolov.utilslib.bytes.MappedRecordFile;
+import com.nikolov.utilslib.primitives.DecimalValue;
+import com.nikolov.utilslib.primitives.NumberValue;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.InvalidParameterException;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class FieldAggregatorTest {
+
+    @Test
+    public void whenAggregatingSignedFieldItShouldReturnStatistics() {
+        PrimitiveValue[] template = {new NumberValue(INT32)};
+        // Enough records to be split in several slices
+        ByteBuffer bb = ByteBuffer.allocate(100_000 * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 100_000; i++) {
+            bb.putInt(i - 50_000);
+        }
+        bb.flip();
+
+        FieldStatistics stats = FieldAggregator.of(template, 0).statistics(bb);
+        assertEquals(100_000, stats.getCount());
+        assertEquals(-50_000, stats.getMin());
+        assertEquals(49_999, stats.getMax());
+        assertEquals(BigInteger.valueOf(-50_000), stats.getSum());
+        assertEquals(-0.5, stats.getAverage(), 0.0001);
+    }
+
+    @Test
+    public void whenAggregatingUInt64FieldItShouldCompareUnsignedAndSumExactly() {
+        PrimitiveValue[] template = {new NumberValue(INT8), new NumberValue(UINT64)};
+        ByteBuffer bb = ByteBuffer.allocate(100_000 * 9);
+        for (int i = 0; i < 100_000; i++) {
+            bb.put((byte) i).putLong(-1L - i);
+        }
+        bb.flip();
+
+        FieldStatistics stats = FieldAggregator.of(template, 1).statistics(bb);
+        BigInteger max = new BigInteger("18446744073709551615");
+        BigInteger expectedSum = max.multiply(BigInteger.valueOf(100_000))
+                .subtract(BigInteger.valueOf(100_000L * 99_999 / 2));
+        assertEquals(max, stats.getMax());
+        assertEquals(max.subtract(BigInteger.valueOf(99_999)), stats.getMin());
+        assertEquals(expectedSum, stats.getSum());
+    }
+
+    @Test
+    public void whenAggregatingFloatingAndUnsignedFieldsItShouldReturnStatistics() {
+        PrimitiveValue[] template = {new NumberValue(DOUBLE), new NumberValue(UINT16)};
+        ByteBuffer bb = ByteBuffer.allocate(100_000 * 10);
+        for (int i = 0; i < 100_000; i++) {
+            bb.putDouble(i / 4.0).putShort((short) i);
+        }
+        bb.flip();
+
+        FieldStatistics stats = FieldAggregator.of(template, 0).statistics(bb);
+        assertEquals(0.0, stats.getMin());
+        assertEquals(24_999.75, stats.getMax());
+        assertEquals(100_000 / 4.0 * 99_999 / 2, (Double) stats.getSum(), 0.0001);
+
+        stats = FieldAggregator.of(template, 1).statistics(bb);
+        assertEquals(0, stats.getMin());
+        assertEquals(65_535, stats.getMax());
+    }
+
+    @Test
+    public void whenEveryValueIsNaNMinimumAndMaximumShouldBeNaN() {
+        PrimitiveValue[] template = {new NumberValue(FLOAT)};
+        ByteBuffer bb = ByteBuffer.allocate(3 * 4).putFloat(Float.NaN).putFloat(Float.NaN).putFloat(Float.NaN);
+        bb.flip();
+
+        FieldStatistics stats = FieldAggregator.of(template, 0).statistics(bb);
+        assertEquals(3, stats.getCount());
+        assertTrue(Float.isNaN((Float) stats.getMin()));
+        assertTrue(Float.isNaN((Float) stats.getMax()));
+        assertTrue(Double.isNaN((Double) stats.getSum()));
+
+        // NaN is left out as soon as there is another value
+        bb.putFloat(4, -2.5f);
+        stats = FieldAggregator.of(template, 0).statistics(bb);
+        assertEquals(-2.5f, stats.getMin());
+        assertEquals(-2.5f, stats.getMax());
+    }
+
+    @Test
+    public void whenBufferIsEmptyItShouldReturnEmptyStatistics() {
+        PrimitiveValue[] template = {new NumberValue(INT32)};
+        FieldStatistics stats = FieldAggregator.of(template, 0).statistics(ByteBuffer.allocate(0));
+        assertEquals(0, stats.getCount());
+        assertNull(stats.getMin());
+        assertEquals(BigInteger.ZERO, stats.getSum());
+        assertTrue(Double.isNaN(stats.getAverage()));
+    }
+
+    @Test
+    public void whenComputingHistogramOfMappedFileItShouldCountValuesPerBin() throws IOException {
+        PrimitiveValue[] template = {new NumberValue(INT32)};
+        ByteBuffer bb = ByteBuffer.allocate(100_000 * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 100_000; i++) {
+            bb.putInt(i - 50_000);
+        }
+
+        Path file = Files.createTempFile("records", ".bin");
+        try {
+            Files.write(file, bb.array());
+            MappedRecordFile mapped = MappedRecordFile.open(file, 4, ByteOrder.LITTLE_ENDIAN, 4 * 30_000);
+            assertEquals(4, mapped.getWindowCount());
+
+            Histogram histogram = FieldAggregator.of(template, 0).histogram(mapped, -40_000, 40_000, 8);
+            assertEquals(8, histogram.getBinCount());
+            assertEquals(10_000, histogram.getUnderflow());
+            assertEquals(9_999, histogram.getOverflow());
+            assertEquals(10_000, histogram.getCount(0));
+            assertEquals(10_001, histogram.getCount(7));
+            assertEquals(-30_000, histogram.getBinLowerBound(1), 0.0001);
+
+            FieldStatistics stats = FieldAggregator.of(template, 0).statistics(mapped);
+            assertEquals(100_000, stats.getCount());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void whenAggregatingDecimalFieldItShouldThrowException() {
+        FieldAggregator.of(new PrimitiveValue[]{new DecimalValue(INT64, 2)}, 0);
+    }
+}
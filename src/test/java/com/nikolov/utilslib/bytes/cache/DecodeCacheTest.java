@@ -0,0 +1,120 @@
+package com.nikolov.utilslib.bytes.cache;
+
+import com.nikolov.utilslib.primitives.ByteArrayValue;
+import com.nikolov.utilslib.primitives.EncodedColumnValue;
+import com.nikolov.utilslib.primitives.NumberValue;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+import com.nikolov.utilslib.primitives.StringValue;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.InvalidParameterException;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class DecodeCacheTest {
+
+    @Test
+    public void whenPayloadRepeatsItShouldReturnTheCachedRecord() {
+        DecodeCache cache = new DecodeCache(10);
+        NumberValue<Integer> id = new NumberValue<>(INT32);
+        PrimitiveValue[] template = {id, new StringValue(4)};
+        byte[] payload = ByteBuffer.allocate(8).putInt(7).put("beat".getBytes()).array();
+
+        DecodedRecord first = cache.decode(payload, template);
+        assertEquals(7, first.get(0));
+        assertEquals("beat", first.get(1));
+
+        // Change the template values, a hit must not decode into it again
+        id.setValue(0);
+        DecodedRecord second = cache.decode(payload.clone(), template);
+        assertSame(first, second);
+        assertEquals(0, template[0].getValue());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 0.0);
+
+        second.copyInto(template);
+        assertEquals(7, template[0].getValue());
+    }
+
+    @Test
+    public void whenPayloadIsInsideLargerArrayItShouldMatchTheSameBytes() {
+        DecodeCache cache = new DecodeCache(10);
+        PrimitiveValue[] template = {new NumberValue(INT32)};
+        byte[] framed = {9, 9, 9, 9, 9, 0, 0, 0, 3, 9};
+
+        DecodedRecord record = cache.decode(new byte[]{0, 0, 0, 3}, template);
+        assertSame(record, cache.decode(framed, 5, 4, template));
+        assertNotSame(record, cache.decode(framed, 4, 4, template));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void whenTemplateDiffersItShouldDecodeAgain() {
+        DecodeCache cache = new DecodeCache(10, 1000, ByteOrder.LITTLE_ENDIAN);
+        byte[] payload = {0, 0, 0, 1};
+        DecodedRecord a = cache.decode(payload, new PrimitiveValue[]{new NumberValue(INT32)});
+        DecodedRecord b = cache.decode(payload, new PrimitiveValue[]{new NumberValue(INT32)});
+        assertNotSame(a, b);
+        assertEquals(0x01000000, a.get(0));
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void whenRecordIsReturnedItShouldNotExposeMutableArrays() {
+        DecodeCache cache = new DecodeCache(10);
+        DecodedRecord record = cache.decode(new byte[]{1, 2}, new PrimitiveValue[]{new ByteArrayValue(2)});
+        Byte[] bytes = (Byte[]) record.get(0);
+        bytes[0] = 99;
+        assertEquals((byte) 1, ((Byte[]) record.get(0))[0].byteValue());
+    }
+
+    @Test
+    public void whenLimitsAreExceededItShouldEvictLeastRecentlyUsed() {
+        PrimitiveValue[] template = {new NumberValue(INT8)};
+        DecodeCache cache = new DecodeCache(3);
+        DecodedRecord one = cache.decode(new byte[]{1}, template);
+        cache.decode(new byte[]{2}, template);
+        cache.decode(new byte[]{3}, template);
+        // Touch 1 so 2 is the least recently used
+        assertSame(one, cache.decode(new byte[]{1}, template));
+        cache.decode(new byte[]{4}, template);
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertSame(one, cache.decode(new byte[]{1}, template));
+        cache.decode(new byte[]{2}, template);
+        assertEquals(5, cache.getMisses());
+
+        DecodeCache bySize = new DecodeCache(100, 2, ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < 5; i++) {
+            bySize.decode(new byte[]{(byte) i}, template);
+        }
+        assertEquals(2, bySize.size());
+        assertEquals(2, bySize.getPayloadBytes());
+        assertEquals(3, bySize.getEvictions());
+    }
+
+    @Test
+    public void whenHashingItShouldDependOnEveryByte() {
+        byte[] bytes = new byte[19];
+        long base = PayloadKey.hash(bytes, 0, bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = 1;
+            assertNotEquals(base, PayloadKey.hash(bytes, 0, bytes.length));
+            bytes[i] = 0;
+        }
+        assertNotEquals(base, PayloadKey.hash(bytes, 0, bytes.length - 1));
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void whenTemplateHasEncodedColumnItShouldThrowException() {
+        DecodeCache cache = new DecodeCache(10);
+        cache.decode(new byte[8], new PrimitiveValue[]{new NumberValue(INT32), new EncodedColumnValue()});
+    }
+}
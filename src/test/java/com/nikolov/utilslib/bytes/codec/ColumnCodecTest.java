@@ -0,0 +1,202 @@
+package com.nikolov.utilslib.bytes.codec;
+
+import com.nikolov.utilslib.bytes.CompositeTranslator;
+import com.nikolov.utilslib.bytes.FromBytesTranslator;
+import com.nikolov.utilslib.bytes.TemplateProjection;
+import com.nikolov.utilslib.bytes.cache.DecodeCache;
+import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
+import com.nikolov.utilslib.bytes.scan.FieldPredicate;
+import com.nikolov.utilslib.bytes.scan.RecordScanner;
+import com.nikolov.utilslib.bytes.stream.InflatingTranslator;
+import com.nikolov.utilslib.primitives.EncodedColumnValue;
+import com.nikolov.utilslib.primitives.NumberValue;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class ColumnCodecTest {
+
+    private static long[] timestamps(int count) {
+        Random random = new Random(7);
+        long[] values = new long[count];
+        values[0] = 1_600_000_000_000L;
+        for (int i = 1; i < count; i++) {
+            values[i] = values[i - 1] + 1000 + random.nextInt(5) - 2;
+        }
+        return values;
+    }
+
+    private static long[] roundTrip(ColumnEncoding encoding, long[] values, ByteOrder order) {
+        ByteBuffer bb = ByteBuffer.allocate(ColumnCodec.encodedLength(encoding, values, 0, values.length) + 3)
+                .order(order);
+        bb.position(3);
+        int length = ColumnCodec.encode(encoding, values, 0, values.length, bb);
+        assertEquals(bb.capacity(), bb.position());
+        assertEquals(length, ColumnCodec.blockLength(bb, 3));
+        assertEquals(values.length, ColumnCodec.valueCount(bb, 3));
+
+        long[] decoded = new long[values.length + 2];
+        assertEquals(values.length, ColumnCodec.decode(bb, 3, decoded, 2));
+        long[] res = new long[values.length];
+        System.arraycopy(decoded, 2, res, 0, values.length);
+        return res;
+    }
+
+    @Test
+    public void whenEncodingWithEveryEncodingItShouldDecodeTheSameValues() {
+        long[][] columns = {
+                timestamps(1000),
+                {42},
+                {},
+                {5, 3},
+                {Long.MIN_VALUE, Long.MAX_VALUE, 0, -1, 1, Long.MIN_VALUE},
+                {-7, -7, -7, -7, -7, -7, -7, -7, -7}
+        };
+        for (ColumnEncoding encoding : ColumnEncoding.values()) {
+            for (long[] column : columns) {
+                assertArrayEquals(column, roundTrip(encoding, column, ByteOrder.BIG_ENDIAN));
+                assertArrayEquals(column, roundTrip(encoding, column, ByteOrder.LITTLE_ENDIAN));
+            }
+        }
+    }
+
+    @Test
+    public void whenEncodingRandomWidthsItShouldDecodeTheSameValues() {
+        Random random = new Random(11);
+        for (int bits = 1; bits <= 64; bits++) {
+            long[] values = new long[67];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = bits == 64 ? random.nextLong() : random.nextLong() & ((1L << bits) - 1);
+            }
+            assertArrayEquals(values, roundTrip(ColumnEncoding.FRAME_OF_REFERENCE, values, ByteOrder.BIG_ENDIAN));
+            assertArrayEquals(values, roundTrip(ColumnEncoding.DELTA, values, ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    @Test
+    public void whenTimestampsAreRegularDeltaOfDeltaShouldBeSmallest() {
+        long[] values = timestamps(1000);
+        int raw = values.length * Long.BYTES;
+        int delta = ColumnCodec.encodedLength(ColumnEncoding.DELTA, values, 0, values.length);
+        int deltaOfDelta = ColumnCodec.encodedLength(ColumnEncoding.DELTA_OF_DELTA, values, 0, values.length);
+        assertTrue(delta < raw / 4);
+        assertTrue(deltaOfDelta < delta);
+    }
+
+    @Test
+    public void whenDecodingIntoIntsItShouldNarrowTheValues() {
+        int[] values = {100, 101, 103, 99, -5, 1 << 30};
+        ByteBuffer bb = ByteBuffer.allocate(128);
+        ColumnCodec.encode(ColumnEncoding.FRAME_OF_REFERENCE, values, 0, values.length, bb);
+
+        int[] decoded = new int[values.length];
+        assertEquals(values.length, ColumnCodec.decode(bb, 0, decoded, 0, null));
+        assertArrayEquals(values, decoded);
+    }
+
+    @Test
+    public void whenTranslatingTemplateWithEncodedColumnItShouldDecodeTheBlock() {
+        long[] values = timestamps(50);
+        ByteBuffer bb = ByteBuffer.allocate(512);
+        bb.putShort((short) 12);
+        ColumnCodec.encode(ColumnEncoding.DELTA_OF_DELTA, values, 0, values.length, bb);
+        bb.putInt(77);
+        int total = bb.position();
+
+        PrimitiveValue[] template = {new NumberValue(INT16), new EncodedColumnValue(4), new NumberValue(INT32)};
+        FromBytesTranslator fbt = new FromBytesTranslator();
+        fbt.wrap(bb.array());
+        fbt.processTemplatedValues(template);
+        EncodedColumnValue column = (EncodedColumnValue) template[1];
+        assertEquals(values.length, column.getCount());
+        assertArrayEquals(values, column.getValue());
+        assertEquals(77, template[2].getValue());
+        assertEquals(total, fbt.getBufferPositionIndex());
+
+        // Block split over three chunks
+        byte[] array = bb.array();
+        byte[][] chunks = {new byte[10], new byte[40], new byte[total - 50]};
+        System.arraycopy(array, 0, chunks[0], 0, 10);
+        System.arraycopy(array, 10, chunks[1], 0, 40);
+        System.arraycopy(array, 50, chunks[2], 0, total - 50);
+        template[1] = new EncodedColumnValue();
+        CompositeTranslator ct = new CompositeTranslator();
+        ct.wrap(chunks);
+        ct.processTemplatedValues(template);
+        assertArrayEquals(values, ((EncodedColumnValue) template[1]).getValue());
+        assertEquals(77, template[2].getValue());
+    }
+
+    @Test
+    public void whenBlockIsLongerThanTheBufferItShouldThrowBeforeDecoding() {
+        // Header claiming Integer.MAX_VALUE values of 64 bits in a 64 byte buffer
+        ByteBuffer bb = ByteBuffer.allocate(64);
+        bb.put(0, (byte) ColumnEncoding.FRAME_OF_REFERENCE.getId()).put(1, (byte) 64).putInt(4, Integer.MAX_VALUE);
+
+        try {
+            ColumnCodec.blockLength(bb, 0);
+            fail();
+        } catch (UnexpectedArrayLengthException expected) {
+        }
+        try {
+            ColumnCodec.decode(bb, 0, new int[0], 0, null);
+            fail();
+        } catch (UnexpectedArrayLengthException expected) {
+        }
+
+        PrimitiveValue[] template = {new EncodedColumnValue()};
+        FromBytesTranslator fbt = new FromBytesTranslator();
+        fbt.wrap(bb.array());
+        try {
+            fbt.processTemplatedValues(template);
+            fail();
+        } catch (UnexpectedArrayLengthException expected) {
+        }
+        CompositeTranslator ct = new CompositeTranslator();
+        ct.wrap(new byte[][]{Arrays.copyOfRange(bb.array(), 0, 10), Arrays.copyOfRange(bb.array(), 10, 64)});
+        try {
+            ct.processTemplatedValues(template);
+            fail();
+        } catch (UnexpectedArrayLengthException expected) {
+        }
+        assertEquals(0, ((EncodedColumnValue) template[0]).getCount());
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void whenProjectingTemplateWithEncodedColumnItShouldThrowException() {
+        TemplateProjection.of(new PrimitiveValue[]{new EncodedColumnValue(), new NumberValue(INT8)}, 1);
+    }
+
+    @Test
+    public void whenFixedLengthReaderGetsEncodedColumnItShouldThrowException() throws IOException {
+        PrimitiveValue[] template = {new NumberValue(INT32), new EncodedColumnValue()};
+        try {
+            RecordScanner.of(template, FieldPredicate.eq(0, 1L));
+            fail();
+        } catch (InvalidParameterException expected) {
+        }
+        try {
+            new DecodeCache(4).decode(new byte[64], template);
+            fail();
+        } catch (InvalidParameterException expected) {
+        }
+        try (InflatingTranslator it = InflatingTranslator.deflate(new ByteArrayInputStream(new byte[0]), false)) {
+            it.next(template);
+            fail();
+        } catch (InvalidParameterException expected) {
+        }
+    }
+}
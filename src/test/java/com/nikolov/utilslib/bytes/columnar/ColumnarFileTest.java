@@ -0,0 +1,168 @@
+package com.nikolov.utilslib.bytes.columnar;
+
+import com.nikolov.utilslib.bytes.FromBytesTranslator;
+import com.nikolov.utilslib.primitives.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.InvalidParameterException;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class ColumnarFileTest {
+
+    @Test
+    public void whenReloadingSnapshotItShouldServeTheDecodedColumns() throws IOException {
+        PrimitiveValue[] template = {new NumberValue(INT32), new NumberValue(UINT16), new DecimalValue(INT64, 8),
+                new StringValue(3), new NumberValue(DOUBLE), new NumberValue(UINT64), new AsciiIntegerValue(5),
+                new ByteArrayValue(2)};
+        // 40 bytes per record
+        ByteBuffer bb = ByteBuffer.allocate(1000 * 40);
+        for (int i = 0; i < 1000; i++) {
+            bb.putInt(i - 500)
+                    .putShort((short) (65000 + i % 500))
+                    .putLong(i * 100_000_000L + 1)
+                    .put(String.format("%03d", i).getBytes())
+                    .putDouble(i / 4.0)
+                    .putLong(-1L - i)
+                    .put(String.format("%5d", i).getBytes())
+                    .put(new byte[]{(byte) i, 7});
+        }
+
+        ColumnarWriter writer = ColumnarWriter.of(template);
+        FromBytesTranslator fbt = new FromBytesTranslator();
+        fbt.wrap(bb.array());
+        while (fbt.hasMoreToRead()) {
+            fbt.processTemplatedValues(template);
+            writer.append(template);
+        }
+        assertEquals(1000, writer.getRowCount());
+
+        Path file = Files.createTempFile("snapshot", ".col");
+        try {
+            writer.write(file);
+            ColumnarFile snapshot = ColumnarFile.open(file);
+            assertEquals(1000, snapshot.getRowCount());
+            assertEquals(8, snapshot.getColumnCount());
+            assertEquals(ColumnKind.NUMBER, snapshot.getKind(2));
+            assertEquals(INT64.getId(), snapshot.getPrimitiveType(2).getId());
+            assertEquals(8, snapshot.getScale(2));
+            assertEquals(ColumnKind.STRING, snapshot.getKind(3));
+            assertNull(snapshot.getPrimitiveType(3));
+            assertEquals(ColumnKind.BYTES, snapshot.getKind(7));
+
+            assertEquals(-500, snapshot.ints(0).get(0));
+            assertEquals(499, snapshot.ints(0).get(999));
+            assertEquals(65000 + 123, snapshot.shorts(1).get(123) & 0xFFFF);
+            assertEquals(65000 + 123, snapshot.getLong(1, 123));
+
+            LongBuffer mantissas = snapshot.longs(2);
+            assertEquals(1000, mantissas.remaining());
+            assertEquals("7.00000001", Decimals.toString(mantissas.get(7), snapshot.getScale(2)));
+
+            assertEquals("042", snapshot.getString(3, 42));
+            assertEquals(2.25, snapshot.doubles(4).get(9), 0.0);
+            assertEquals(new BigInteger("18446744073709551615"),
+                    new BigInteger(Long.toUnsignedString(snapshot.longs(5).get(0))));
+            assertEquals(-1L - 999, snapshot.getLong(5, 999));
+            assertEquals(777, snapshot.longs(6).get(777));
+            assertEquals(2, snapshot.getWidth(7));
+            assertEquals(7, snapshot.bytes(7).get(2 * 10 + 1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void whenAskingForTheWrongViewItShouldThrowException() throws IOException {
+        NumberValue<Integer> value = new NumberValue<>(INT32);
+        PrimitiveValue[] template = {value};
+        ColumnarWriter writer = ColumnarWriter.of(template);
+        value.setValue(5);
+        writer.append(template);
+
+        Path file = Files.createTempFile("snapshot", ".col");
+        try {
+            writer.write(file);
+            ColumnarFile.open(file).doubles(0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void whenFileIsNotASnapshotItShouldThrowException() throws IOException {
+        Path file = Files.createTempFile("snapshot", ".col");
+        try {
+            Files.write(file, new byte[64]);
+            ColumnarFile.open(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void whenRowCountIsCorruptItShouldThrowException() throws IOException {
+        NumberValue<Long> value = new NumberValue<>(INT64);
+        PrimitiveValue[] template = {value};
+        ColumnarWriter writer = ColumnarWriter.of(template);
+        value.setValue(5L);
+        writer.append(template);
+
+        Path file = Files.createTempFile("snapshot", ".col");
+        try {
+            writer.write(file);
+            byte[] bytes = Files.readAllBytes(file);
+            // Row count after magic, version, reserved bytes and column count
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putLong(12, Long.MAX_VALUE / 4);
+            Files.write(file, bytes);
+            ColumnarFile.open(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void whenAsciiNumberIsMalformedItShouldRejectTheRow() throws IOException {
+        PrimitiveValue[] template = {new NumberValue(INT32), new AsciiIntegerValue(4)};
+        ColumnarWriter writer = ColumnarWriter.of(template);
+        FromBytesTranslator fbt = new FromBytesTranslator();
+        fbt.wrap(ByteBuffer.allocate(16).putInt(1).put("  12".getBytes()).putInt(2).put("1x2 ".getBytes()).array());
+
+        fbt.processTemplatedValues(template);
+        writer.append(template);
+        fbt.processTemplatedValues(template);
+        try {
+            writer.append(template);
+            fail();
+        } catch (InvalidParameterException e) {
+            assertEquals(1, writer.getRowCount());
+        }
+
+        Path file = Files.createTempFile("snapshot", ".col");
+        try {
+            writer.write(file);
+            ColumnarFile snapshot = ColumnarFile.open(file);
+            assertEquals(1, snapshot.getRowCount());
+            assertEquals(1, snapshot.getLong(0, 0));
+            assertEquals(12, snapshot.getLong(1, 0));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void whenTemplateHasVariableLengthFieldItShouldThrowException() {
+        ColumnarWriter.of(new PrimitiveValue[]{new EncodedColumnValue()});
+    }
+}
@@ -0,0 +1,114 @@
+package com.nikolov.utilslib.bytes.index;
+
+import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class RecordIndexerTest {
+
+    private static ByteBuffer lengthPrefixedRecords(int... payloadLengths) {
+        int total = 0;
+        for (int length : payloadLengths) {
+            total += 2 + length;
+        }
+        ByteBuffer bb = ByteBuffer.allocate(total);
+        for (int length : payloadLengths) {
+            bb.putShort((short) length).put(new byte[length]);
+        }
+        bb.flip();
+        return bb;
+    }
+
+    @Test
+    public void whenIndexingLengthPrefixedRecordsItShouldReturnTheirOffsets() {
+        ByteBuffer bb = lengthPrefixedRecords(3, 0, 10, 1);
+
+        RecordOffsetIndex index = RecordIndexer.index(bb, RecordFraming.lengthPrefixed(UINT16, 2));
+        assertEquals(4, index.size());
+        assertEquals(0, index.offset(0));
+        assertEquals(5, index.offset(1));
+        assertEquals(7, index.offset(2));
+        assertEquals(19, index.offset(3));
+        assertEquals(12, index.length(2));
+        assertEquals(22, index.endOffset());
+    }
+
+    @Test
+    public void whenLastRecordIsTruncatedItShouldBeLeftOut() {
+        ByteBuffer bb = ByteBuffer.allocate(9).putShort((short) 3).put(new byte[3]).putShort((short) 8);
+        bb.flip();
+
+        RecordOffsetIndex index = RecordIndexer.index(bb, RecordFraming.lengthPrefixed(UINT16, 2));
+        assertEquals(1, index.size());
+        assertEquals(5, index.endOffset());
+    }
+
+    @Test(expected = UnexpectedArrayLengthException.class)
+    public void whenFramingReturnsZeroLengthItShouldThrowException() {
+        ByteBuffer bb = ByteBuffer.allocate(4);
+        RecordIndexer.index(bb, RecordFraming.lengthPrefixed(INT16, 0));
+    }
+
+    @Test
+    public void whenIndexingFileItShouldWriteSidecarThatLoadsToTheSameIndex() throws IOException {
+        ByteBuffer bb = lengthPrefixedRecords(1, 200, 4464, 5, 0, 129);
+        Path file = Files.createTempFile("records", ".bin");
+        Path sidecar = Files.createTempFile("records", ".idx");
+        try {
+            Files.write(file, bb.array());
+            RecordOffsetIndex written = RecordIndexer.index(file, ByteOrder.BIG_ENDIAN,
+                    RecordFraming.lengthPrefixed(UINT16, 2), sidecar);
+            RecordOffsetIndex loaded = RecordOffsetIndex.load(sidecar);
+
+            assertEquals(6, loaded.size());
+            for (int i = 0; i < written.size(); i++) {
+                assertEquals(written.offset(i), loaded.offset(i));
+                assertEquals(written.length(i), loaded.length(i));
+            }
+            assertEquals(bb.limit(), loaded.endOffset());
+        } finally {
+            Files.delete(file);
+            Files.delete(sidecar);
+        }
+    }
+
+    @Test
+    public void whenSplittingItShouldReturnRangesWithSimilarByteCounts() {
+        ByteBuffer bb = ByteBuffer.allocate(1000);
+        RecordOffsetIndex index = RecordIndexer.index(bb, RecordFraming.fixed(10));
+
+        int[] bounds = index.split(4);
+        assertArrayEquals(new int[]{0, 25, 50, 75, 100}, bounds);
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void whenAskingForRecordOutOfRangeItShouldThrowException() {
+        RecordOffsetIndex index = RecordIndexer.index(ByteBuffer.allocate(20), RecordFraming.fixed(10));
+        index.offset(2);
+    }
+
+    @Test(expected = IOException.class)
+    public void whenSidecarCountIsLargerThanTheFileItShouldThrowException() throws IOException {
+        ByteBuffer bb = ByteBuffer.allocate(12)
+                .putInt(RecordOffsetIndex.MAGIC).put(RecordOffsetIndex.VERSION).putInt(Integer.MAX_VALUE)
+                .put(new byte[]{0, 10, 10});
+        Path sidecar = Files.createTempFile("records", ".idx");
+        try {
+            Files.write(sidecar, bb.array());
+            RecordOffsetIndex.load(sidecar);
+        } finally {
+            Files.delete(sidecar);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.nikolov.utilslib.bytes.ring;
+
+import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
+import com.nikolov.utilslib.primitives.NumberValue;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class DecodeRingBufferTest {
+
+    @Test
+    public void whenRingIsFullItShouldRejectPacketsUntilOneIsConsumed() {
+        DecodeRingBuffer ring = new DecodeRingBuffer(4, 16, () -> new PrimitiveValue[]{new NumberValue(INT64)},
+                ByteOrder.LITTLE_ENDIAN, WaitStrategy.BUSY_SPIN);
+
+        ByteBuffer packet = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.tryPublish(packet.putLong(0, i).array(), 0, 8));
+        }
+        assertFalse(ring.tryPublish(packet.putLong(0, 4).array(), 0, 8));
+
+        List<Long> ids = new ArrayList<>();
+        assertTrue(ring.tryConsume(slot -> ids.add((Long) slot.getTemplate()[0].getValue())));
+        assertTrue(ring.tryPublish(packet.array(), 0, 8));
+
+        while (ring.tryConsume(slot -> ids.add((Long) slot.getTemplate()[0].getValue()))) {
+            // drain
+        }
+        assertEquals(5, ids.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Long.valueOf(i), ids.get(i));
+        }
+    }
+
+    @Test
+    public void whenSeveralConsumersRunItShouldHandleEveryPacketOnce() throws InterruptedException {
+        int packets = 200_000;
+        DecodeRingBuffer ring = new DecodeRingBuffer(64, 16, () -> new PrimitiveValue[]{new NumberValue(INT64)},
+                ByteOrder.LITTLE_ENDIAN, WaitStrategy.park(1000));
+        AtomicLong sum = new AtomicLong();
+        AtomicLong count = new AtomicLong();
+
+        List<Thread> consumers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Thread consumer = new Thread(() -> {
+                while (ring.consume(slot -> {
+                    sum.addAndGet((Long) slot.getTemplate()[0].getValue());
+                    count.incrementAndGet();
+                })) {
+                    // keep consuming
+                }
+            });
+            consumer.start();
+            consumers.add(consumer);
+        }
+
+        ByteBuffer packet = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < packets; i++) {
+            assertTrue(ring.publish(packet.putLong(0, i).array(), 0, 8));
+        }
+        ring.halt();
+        for (Thread consumer : consumers) {
+            consumer.join(30_000);
+        }
+
+        assertEquals(packets, count.get());
+        assertEquals((long) packets * (packets - 1) / 2, sum.get());
+    }
+
+    @Test
+    public void whenPacketIsShorterThanTemplateItShouldThrowAndRecycleTheSlot() {
+        DecodeRingBuffer ring = new DecodeRingBuffer(1, 16, () -> new PrimitiveValue[]{new NumberValue(INT64)},
+                ByteOrder.LITTLE_ENDIAN, WaitStrategy.YIELD);
+        byte[] packet = new byte[8];
+        assertTrue(ring.tryPublish(packet, 0, 4));
+        try {
+            ring.tryConsume(slot -> fail());
+            fail();
+        } catch (UnexpectedArrayLengthException e) {
+            assertTrue(ring.tryPublish(packet, 0, 8));
+        }
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void whenCapacityIsNotPowerOfTwoItShouldThrowException() {
+        new DecodeRingBuffer(3, 16, () -> new PrimitiveValue[]{new NumberValue(INT64)}, ByteOrder.LITTLE_ENDIAN, WaitStrategy.YIELD);
+    }
+}
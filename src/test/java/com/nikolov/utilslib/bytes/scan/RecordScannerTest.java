@@ -0,0 +1,139 @@
+package com.nikolov.utilslib.bytes.scan;
+
+import com.nikolov.utilslib.bytes.MappedRecordFile;
+import com.nikolov.utilslib.bytes.TemplateProjection;
+import com.nikolov.utilslib.primitives.DecimalValue;
+import com.nikolov.utilslib.primitives.NumberValue;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+import com.nikolov.utilslib.primitives.StringValue;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class RecordScannerTest {
+
+    @Test
+    public void whenScanningWithNumericPredicateItShouldVisitOnlyMatchingRecords() {
+        PrimitiveValue[] template = {new NumberValue(UINT8), new NumberValue(INT32), new NumberValue(DOUBLE)};
+        // type = i % 10, id = i, price = i * 1.5
+        ByteBuffer bb = ByteBuffer.allocate(100 * 13);
+        for (int i = 0; i < 100; i++) {
+            bb.put((byte) (i % 10)).putInt(i).putDouble(i * 1.5);
+        }
+        bb.flip();
+
+        RecordScanner scanner = RecordScanner.of(template,
+                FieldPredicate.eq(0, 7).and(FieldPredicate.gt(2, 60.0)));
+        List<Integer> ids = new ArrayList<>();
+        long matches = scanner.scan(bb,
+                RecordVisitor.decoding(template, values -> ids.add((Integer) values[1].getValue())));
+
+        assertEquals(6, matches);
+        assertEquals(6, ids.size());
+        assertEquals(Integer.valueOf(47), ids.get(0));
+        assertEquals(Integer.valueOf(97), ids.get(5));
+    }
+
+    @Test
+    public void whenScanningWithBytesPredicateItShouldCompareStringBytes() {
+        PrimitiveValue[] template = {new NumberValue(INT32), new StringValue(3)};
+        ByteBuffer bb = ByteBuffer.allocate(100 * 7);
+        for (int i = 0; i < 100; i++) {
+            bb.putInt(i).put(i % 2 == 0 ? "ABC".getBytes() : "XYZ".getBytes());
+        }
+        bb.flip();
+
+        RecordScanner scanner = RecordScanner.of(template,
+                FieldPredicate.bytesEqual(1, "XYZ").and(FieldPredicate.lt(0, 10)));
+        assertEquals(5, scanner.count(bb));
+
+        scanner = RecordScanner.of(template, FieldPredicate.bytesStartWith(1, "AB".getBytes()).negate());
+        assertEquals(50, scanner.count(bb));
+
+        scanner = RecordScanner.of(template, FieldPredicate.bytesEqual(1, "AB"));
+        assertEquals(0, scanner.count(bb));
+    }
+
+    @Test
+    public void whenComparingUInt64FieldItShouldCompareUnsigned() {
+        PrimitiveValue[] template = {new NumberValue(UINT64)};
+        // -1 .. -99 are huge unsigned values, 0 is the smallest
+        ByteBuffer bb = ByteBuffer.allocate(100 * 8).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 100; i++) {
+            bb.putLong(-i);
+        }
+        bb.flip();
+
+        RecordScanner scanner = RecordScanner.of(template, FieldPredicate.gt(0, Long.MAX_VALUE));
+        assertEquals(99, scanner.count(bb));
+
+        scanner = RecordScanner.of(template, FieldPredicate.eq(0, 0).or(FieldPredicate.eq(0, -2)));
+        assertEquals(2, scanner.count(bb));
+    }
+
+    @Test
+    public void whenComparingDoublesItShouldFollowJavaOperators() {
+        PrimitiveValue[] template = {new NumberValue(DOUBLE)};
+        ByteBuffer bb = ByteBuffer.allocate(3 * 8).putDouble(-0.0).putDouble(Double.NaN).putDouble(7.0);
+        bb.flip();
+
+        assertEquals(1, RecordScanner.of(template, FieldPredicate.eq(0, 0.0)).count(bb));
+        assertEquals(2, RecordScanner.of(template, FieldPredicate.ge(0, 0.0)).count(bb));
+        assertEquals(0, RecordScanner.of(template, FieldPredicate.lt(0, 0.0)).count(bb));
+        // NaN is neither greater, smaller nor equal
+        assertEquals(1, RecordScanner.of(template, FieldPredicate.gt(0, 5.0)).count(bb));
+        assertEquals(1, RecordScanner.of(template, FieldPredicate.le(0, 5.0)).count(bb));
+        assertEquals(0, RecordScanner.of(template, FieldPredicate.eq(0, Double.NaN)).count(bb));
+        assertEquals(3, RecordScanner.of(template, FieldPredicate.ne(0, Double.NaN)).count(bb));
+    }
+
+    @Test
+    public void whenScanningMappedFileItShouldVisitRecordsOfAllWindows() throws IOException {
+        PrimitiveValue[] template = {new NumberValue(INT32), new NumberValue(DOUBLE)};
+        ByteBuffer bb = ByteBuffer.allocate(100 * 12).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 100; i++) {
+            bb.putInt(i).putDouble(i * 1.5);
+        }
+
+        Path file = Files.createTempFile("records", ".bin");
+        try {
+            Files.write(file, bb.array());
+            MappedRecordFile mapped = MappedRecordFile.open(file, 12, ByteOrder.LITTLE_ENDIAN, 12 * 7);
+            assertEquals(15, mapped.getWindowCount());
+
+            RecordScanner scanner = RecordScanner.of(template, FieldPredicate.ge(1, 100.0));
+            List<Integer> ids = new ArrayList<>();
+            long matches = scanner.scan(mapped, RecordVisitor.decoding(template, TemplateProjection.of(template, 0),
+                    values -> ids.add((Integer) values[0].getValue())));
+
+            assertEquals(33, matches);
+            assertEquals(Integer.valueOf(67), ids.get(0));
+            assertEquals(Integer.valueOf(99), ids.get(32));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void whenComparingStringFieldAsNumberItShouldThrowException() {
+        RecordScanner.of(new PrimitiveValue[]{new NumberValue(INT32), new StringValue(3)}, FieldPredicate.eq(1, 1));
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void whenComparingDecimalFieldItShouldThrowException() {
+        RecordScanner.of(new PrimitiveValue[]{new DecimalValue(INT64, 2)}, FieldPredicate.lt(0, 12.5));
+    }
+}
@@ -0,0 +1,131 @@
+package com.nikolov.utilslib.bytes.search;
+
+import com.nikolov.utilslib.bytes.MappedRecordFile;
+import com.nikolov.utilslib.primitives.DecimalValue;
+import com.nikolov.utilslib.primitives.NumberValue;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+import com.nikolov.utilslib.primitives.StringValue;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.InvalidParameterException;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class SortedRecordSearchTest {
+
+    @Test
+    public void whenSearchingSignedKeyItShouldFindRecordsAndInsertionPoints() {
+        PrimitiveValue[] template = {new StringValue(2), new NumberValue(INT32)};
+        // Keys are -1000, -998, ... with each one twice
+        ByteBuffer bb = ByteBuffer.allocate(1000 * 6).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 1000; i++) {
+            bb.put(new byte[]{'x', 'y'}).putInt(-1000 + i / 2 * 2);
+        }
+        bb.flip();
+        SortedRecordSearch search = SortedRecordSearch.of(template, 1);
+
+        long found = search.find(bb, -996);
+        assertTrue(found == 4 || found == 5);
+        assertEquals(-5, search.find(bb, -997));
+        assertEquals(-1, search.find(bb, -5000));
+        assertEquals(-1001, search.find(bb, 1));
+        assertEquals(4, search.lowerBound(bb, -996));
+        assertEquals(6, search.upperBound(bb, -996));
+
+        RecordRange range = search.range(bb, -996, -991);
+        assertEquals(4, range.getFrom());
+        assertEquals(10, range.getTo());
+    }
+
+    @Test
+    public void whenSearchingUnsignedKeyItShouldCompareUnsigned() {
+        PrimitiveValue[] template = {new NumberValue(UINT64)};
+        ByteBuffer bb = ByteBuffer.allocate(1000 * 8);
+        for (int i = 0; i < 1000; i++) {
+            bb.putLong(Long.MAX_VALUE - 500 + i);
+        }
+        bb.flip();
+        SortedRecordSearch search = SortedRecordSearch.of(template, 0);
+
+        // Keys go past Long.MAX_VALUE into the upper unsigned half
+        assertEquals(501, search.find(bb, Long.MIN_VALUE));
+        assertEquals(0, search.find(bb, Long.MAX_VALUE - 500));
+        RecordRange range = search.range(bb, Long.MAX_VALUE, Long.MIN_VALUE + 9);
+        assertEquals(500, range.getFrom());
+        assertEquals(511, range.getTo());
+    }
+
+    @Test
+    public void whenSearchingFloatingKeyItShouldCompareAsDoubles() {
+        PrimitiveValue[] template = {new NumberValue(DOUBLE)};
+        ByteBuffer bb = ByteBuffer.allocate(1000 * 8);
+        for (int i = 0; i < 1000; i++) {
+            bb.putDouble(-250.0 + i * 0.5);
+        }
+        bb.flip();
+        // Found indexes count from the buffer position
+        bb.position(8 * 10);
+        SortedRecordSearch search = SortedRecordSearch.of(template, 0);
+
+        assertEquals(490, search.find(bb, 0.0));
+        assertEquals(-492, search.find(bb, 0.25));
+        RecordRange range = search.range(bb, -1.0, 1.0);
+        assertEquals(488, range.getFrom());
+        assertEquals(493, range.getTo());
+        assertTrue(search.range(bb, 1.0, -1.0).isEmpty());
+    }
+
+    @Test
+    public void whenSearchingMappedFileWithFenceIndexItShouldAgreeWithPlainSearch() throws IOException {
+        PrimitiveValue[] template = {new NumberValue(INT32)};
+        ByteBuffer bb = ByteBuffer.allocate(1000 * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 1000; i++) {
+            bb.putInt(-1000 + i / 2 * 2);
+        }
+
+        Path file = Files.createTempFile("sorted", ".bin");
+        try {
+            Files.write(file, bb.array());
+            MappedRecordFile mapped = MappedRecordFile.open(file, 4, ByteOrder.LITTLE_ENDIAN, 4 * 64);
+            SortedRecordSearch search = SortedRecordSearch.of(template, 0);
+            FenceIndex fence = search.buildFenceIndex(mapped, 7);
+            assertEquals(143, fence.size());
+
+            for (long key = -1003; key < 3; key++) {
+                long plain = search.find(mapped, key);
+                long fenced = search.find(mapped, fence, key);
+                if (plain >= 0) {
+                    assertTrue(fenced >= 0 && fenced / 2 == plain / 2);
+                } else {
+                    assertEquals(plain, fenced);
+                }
+
+                RecordRange plainRange = search.range(mapped, null, key, key + 10);
+                RecordRange fencedRange = search.range(mapped, fence, key, key + 10);
+                assertEquals(plainRange.getFrom(), fencedRange.getFrom());
+                assertEquals(plainRange.getTo(), fencedRange.getTo());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void whenKeyFieldIsNotNumericItShouldThrowException() {
+        SortedRecordSearch.of(new PrimitiveValue[]{new StringValue(2), new NumberValue(INT32)}, 0);
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void whenKeyFieldIsDecimalItShouldThrowException() {
+        SortedRecordSearch.of(new PrimitiveValue[]{new DecimalValue(INT64, 2)}, 0);
+    }
+}
@@ -0,0 +1,185 @@
+package com.nikolov.utilslib.bytes.stream;
+
+import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
+import com.nikolov.utilslib.primitives.NumberValue;
+import com.nikolov.utilslib.primitives.PrimitiveValue;
+import com.nikolov.utilslib.primitives.StringValue;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class InflatingTranslatorTest {
+
+    @Test
+    public void whenReadingGzipStreamItShouldDecodeAllRecords() throws IOException {
+        // 15 bytes per record, so records keep crossing the end of a 64 byte window
+        ByteBuffer bb = ByteBuffer.allocate(1000 * 15);
+        for (int i = 0; i < 1000; i++) {
+            bb.putInt(i).putLong(i * 1000L).put(String.format("%03d", i).getBytes());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bb.array());
+        }
+
+        PrimitiveValue[] template = {new NumberValue(INT32), new NumberValue(INT64), new StringValue(3)};
+        try (InflatingTranslator it = InflatingTranslator.gzip(new ByteArrayInputStream(out.toByteArray()), 64)) {
+            int count = 0;
+            while (it.next(template)) {
+                assertEquals(count, template[0].getValue());
+                assertEquals(count * 1000L, template[1].getValue());
+                assertEquals(String.format("%03d", count), template[2].getValue());
+                count++;
+            }
+            assertEquals(1000, count);
+        }
+    }
+
+    @Test
+    public void whenReadingRawDeflateStreamItShouldDecodeAllRecordsAndBeReusable() throws IOException {
+        ByteBuffer bb = ByteBuffer.allocate(1000 * 12).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 1000; i++) {
+            bb.putInt(i).putLong(i * 1000L);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream df = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, true))) {
+            df.write(bb.array());
+        }
+
+        PrimitiveValue[] template = {new NumberValue(INT32), new NumberValue(INT64)};
+        try (InflatingTranslator it = InflatingTranslator.deflate(new ByteArrayInputStream(out.toByteArray()), true, 64)) {
+            it.setOrder(ByteOrder.LITTLE_ENDIAN);
+            for (int pass = 0; pass < 2; pass++) {
+                int count = 0;
+                while (it.next(template)) {
+                    assertEquals(count, template[0].getValue());
+                    assertEquals(count * 1000L, template[1].getValue());
+                    count++;
+                }
+                assertEquals(1000, count);
+                it.reset(new ByteArrayInputStream(out.toByteArray()));
+            }
+        }
+    }
+
+    @Test
+    public void whenRecordIsLargerThanWindowItShouldGrowTheWindow() throws IOException {
+        ByteBuffer bb = ByteBuffer.allocate(20 * 12);
+        for (int i = 0; i < 20; i++) {
+            bb.putInt(i).putLong(i * 1000L);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream df = new DeflaterOutputStream(out)) {
+            df.write(bb.array());
+        }
+
+        try (InflatingTranslator it = InflatingTranslator.deflate(new ByteArrayInputStream(out.toByteArray()), false, 4)) {
+            assertTrue(it.skip(12 * 10));
+            PrimitiveValue[] template = {new NumberValue(INT32), new NumberValue(INT64)};
+            assertTrue(it.next(template));
+            assertEquals(10, template[0].getValue());
+            assertEquals(10_000L, template[1].getValue());
+        }
+    }
+
+    @Test(expected = UnexpectedArrayLengthException.class)
+    public void whenStreamEndsInsideRecordItShouldThrowException() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(new byte[20]);
+        }
+
+        try (InflatingTranslator it = InflatingTranslator.gzip(new ByteArrayInputStream(out.toByteArray()))) {
+            PrimitiveValue[] template = {new NumberValue(INT32), new NumberValue(INT64), new StringValue(3)};
+            assertTrue(it.next(template));
+            it.next(template);
+        }
+    }
+
+    @Test
+    public void whenReadingConcatenatedGzipMembersItShouldDecodeAllRecordsAndBeReusable() throws IOException {
+        byte[] data = new byte[1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i / 4);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data, 0, 600);
+        }
+
+        // Second member with extra field, file name, comment and header crc
+        out.write(new byte[]{0x1f, (byte) 0x8b, 8, 2 | 4 | 8 | 16, 0, 0, 0, 0, 0, 3, 2, 0, 7, 7});
+        out.write("name\0comment\0".getBytes());
+        out.write(new byte[]{0, 0});
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+        try (DeflaterOutputStream df = new DeflaterOutputStream(deflated, new Deflater(Deflater.DEFAULT_COMPRESSION, true))) {
+            df.write(data, 600, 400);
+        }
+        out.write(deflated.toByteArray());
+        CRC32 crc = new CRC32();
+        crc.update(data, 600, 400);
+        out.write(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putInt((int) crc.getValue()).putInt(400).array());
+        byte[] compressed = out.toByteArray();
+
+        PrimitiveValue[] template = {new NumberValue(INT32)};
+        try (InflatingTranslator it = InflatingTranslator.gzip(new ByteArrayInputStream(compressed), 64)) {
+            for (int pass = 0; pass < 3; pass++) {
+                int count = 0;
+                while (it.next(template)) {
+                    // Every record holds the same byte four times
+                    assertEquals(count * 0x01010101, template[0].getValue());
+                    count++;
+                }
+                assertEquals(250, count);
+                assertFalse(it.next(template));
+                it.reset(new ByteArrayInputStream(compressed));
+            }
+        }
+    }
+
+    @Test(expected = ZipException.class)
+    public void whenGzipTrailerIsCorruptItShouldThrowException() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(new byte[30]);
+        }
+        byte[] compressed = out.toByteArray();
+        compressed[compressed.length - 8] ^= 1;
+
+        try (InflatingTranslator it = InflatingTranslator.gzip(new ByteArrayInputStream(compressed))) {
+            assertTrue(it.skip(30));
+            it.skip(1);
+        }
+    }
+
+    @Test(expected = ZipException.class)
+    public void whenStreamNeedsDictionaryItShouldThrowException() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater();
+        deflater.setDictionary("dictionary".getBytes());
+        try (DeflaterOutputStream df = new DeflaterOutputStream(out, deflater)) {
+            df.write("dictionary dictionary".getBytes());
+        } finally {
+            deflater.end();
+        }
+
+        try (InflatingTranslator it = InflatingTranslator.deflate(new ByteArrayInputStream(out.toByteArray()), false)) {
+            it.skip(1);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.nikolov.utilslib.primitives;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.BigDecimal;
+import java.security.InvalidParameterException;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class DecimalsTest {
+
+    @Test
+    public void whenFormattingItShouldWritePlainNotation() {
+        assertEquals("123.45", Decimals.toString(12345, 2));
+        assertEquals("-0.05", Decimals.toString(-5, 2));
+        assertEquals("0.00000001", Decimals.toString(1, 8));
+        assertEquals("0.000", Decimals.toString(0, 3));
+        assertEquals("42", Decimals.toString(42, 0));
+        assertEquals("4200", Decimals.toString(42, -2));
+        assertEquals("0", Decimals.toString(0, -2));
+        assertEquals("-92233720368.54775808", Decimals.toString(Long.MIN_VALUE, 8));
+        assertEquals("9223372036854775807", Decimals.toString(Long.MAX_VALUE, 0));
+    }
+
+    @Test
+    public void whenFormattingItShouldMatchBigDecimal() {
+        long[] mantissas = {1, -1, 9, 10, 99, 100, 123456789, -987654321012L, Long.MAX_VALUE, Long.MIN_VALUE + 1};
+        for (long mantissa : mantissas) {
+            for (int scale = 0; scale <= Decimals.MAX_SCALE; scale++) {
+                assertEquals(BigDecimal.valueOf(mantissa, scale).toPlainString(), Decimals.toString(mantissa, scale));
+            }
+        }
+    }
+
+    @Test
+    public void whenRescalingItShouldRoundHalfUp() {
+        assertEquals(1234500, Decimals.rescale(12345, 2, 4));
+        assertEquals(1235, Decimals.rescale(12345, 2, 1));
+        assertEquals(1234, Decimals.rescale(12344, 2, 1));
+        assertEquals(-1235, Decimals.rescale(-12345, 2, 1));
+        assertEquals(12, Decimals.rescale(12345, 2, -1));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void whenRescalingOverflowsItShouldThrowException() {
+        Decimals.rescale(Long.MAX_VALUE / 10, 0, 2);
+    }
+
+    @Test
+    public void whenScalesAreFarApartItShouldRescale() {
+        assertEquals(0, Decimals.rescale(0, -10, 10));
+        assertEquals(0, Decimals.rescale(Long.MAX_VALUE, 18, -18));
+        // Dividing by 10^19 rounds only values from 5 * 10^18 away from zero
+        assertEquals(1, Decimals.rescale(Long.MAX_VALUE, 18, -1));
+        assertEquals(-1, Decimals.rescale(Long.MIN_VALUE, 18, -1));
+        assertEquals(0, Decimals.rescale(4_999_999_999_999_999_999L, 18, -1));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void whenRescalingFarUpItShouldThrowException() {
+        Decimals.rescale(1, -10, 10);
+    }
+
+    @Test
+    public void whenDoingArithmeticItShouldAlignScales() {
+        // 1.5 + 0.25 = 1.75
+        assertEquals(175, Decimals.add(15, 1, 25, 2, 2));
+        // 1.5 - 0.25 = 1.25, rounded to one digit
+        assertEquals(13, Decimals.subtract(15, 1, 25, 2, 1));
+        // 1.5 * 0.25 = 0.375
+        assertEquals(375, Decimals.multiply(15, 1, 25, 2, 3));
+        assertEquals(38, Decimals.multiply(15, 1, 25, 2, 2));
+        assertEquals(-45, Decimals.multiply(-15, 3));
+    }
+
+    @Test
+    public void whenProductOverflowsALongItShouldStillFitTheResult() {
+        // 1000.00000000 * 10.00000000 = 10000.00000000
+        assertEquals(1_000_000_000_000L, Decimals.multiply(100_000_000_000L, 8, 1_000_000_000L, 8, 8));
+        // 30000 * 1 at scale 8
+        assertEquals(3_000_000_000_000L, Decimals.multiply(3_000_000_000_000L, 8, 100_000_000L, 8, 8));
+        assertEquals(-3_000_000_000_000L, Decimals.multiply(-3_000_000_000_000L, 8, 100_000_000L, 8, 8));
+        // 0.000000015 * 0.5 = 0.0000000075, rounded half up
+        assertEquals(-8, Decimals.multiply(-15, 9, 5, 1, 9));
+        assertEquals(Long.MAX_VALUE, Decimals.multiply(Long.MAX_VALUE, 18, 1_000_000_000_000_000_000L, 18, 18));
+        // Combined scale -20, brought to -18
+        assertEquals(100, Decimals.multiply(1, -10, 1, -10, -18));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void whenMultipliedResultOverflowsItShouldThrowException() {
+        Decimals.multiply(Long.MAX_VALUE, 8, 200_000_000L, 8, 8);
+    }
+
+    @Test
+    public void whenComparingItShouldCompareByValue() {
+        assertEquals(0, Decimals.compare(150, 2, 15, 1));
+        assertTrue(Decimals.compare(151, 2, 15, 1) > 0);
+        assertTrue(Decimals.compare(-151, 2, -15, 1) < 0);
+        assertTrue(Decimals.compare(1, 0, 99999999, 8) > 0);
+        // Scaling b up would overflow, so b is the larger one
+        assertTrue(Decimals.compare(Long.MAX_VALUE, 18, Long.MAX_VALUE / 10, 0) < 0);
+        assertTrue(Decimals.compare(Long.MIN_VALUE, 18, Long.MIN_VALUE / 10, 0) > 0);
+        // Scale differences above 18 are decided by sign and magnitude
+        assertTrue(Decimals.compare(1, 10, 1, -10) < 0);
+        assertTrue(Decimals.compare(1, -10, 1, 10) > 0);
+        assertTrue(Decimals.compare(5, 18, 5, -1) < 0);
+        assertTrue(Decimals.compare(5, 18, -5, -1) > 0);
+        assertTrue(Decimals.compare(-5, 18, 0, -1) < 0);
+        assertEquals(0, Decimals.compare(0, 18, 0, -1));
+    }
+
+    @Test
+    public void whenUsingDecimalValueItShouldKeepTheMantissa() throws Exception {
+        DecimalValue price = new DecimalValue(INT64, 8);
+        price.setValue(12345678901L);
+        assertEquals(12345678901L, price.getMantissa());
+        assertEquals(123.45678901, price.toDouble(), 0.0);
+        assertEquals(new BigDecimal("123.45678901"), price.toBigDecimal());
+        assertEquals(Number.class, price.getType());
+        assertEquals(8, price.getBytesCount());
+
+        StringBuilder sb = new StringBuilder();
+        price.formatTo(sb);
+        assertEquals("123.45678901", sb.toString());
+
+        // The translator sets unsigned 32 bit values as longs and smaller ones as other boxes
+        DecimalValue small = new DecimalValue(UINT16, 2);
+        small.setValue(65535);
+        assertEquals("655.35", small.toString());
+        assertTrue(price.compareTo(small) < 0);
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void whenDecimalMantissaIsFloatingItShouldThrowException() {
+        new DecimalValue(DOUBLE, 2);
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void whenScaleIsOutOfRangeItShouldThrowException() {
+        new DecimalValue(INT64, 19);
+    }
+}
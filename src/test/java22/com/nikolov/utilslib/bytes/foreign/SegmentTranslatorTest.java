@@ -0,0 +1,115 @@
+package com.nikolov.utilslib.bytes.foreign;
+
+import com.nikolov.utilslib.bytes.FromBytesTranslator;
+import com.nikolov.utilslib.bytes.codec.ColumnCodec;
+import com.nikolov.utilslib.bytes.codec.ColumnEncoding;
+import com.nikolov.utilslib.bytes.exceptions.BufferEmptyException;
+import com.nikolov.utilslib.bytes.exceptions.UnexpectedArrayLengthException;
+import com.nikolov.utilslib.primitives.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.nikolov.utilslib.primitives.PrimitiveType.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class SegmentTranslatorTest {
+
+    @Test
+    public void whenReadingNumbersItShouldMatchTheByteBufferValues() {
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            ByteBuffer bb = ByteBuffer.allocate(1 + 2 + 4 + 8 + 8 + 4 + 8).order(order);
+            bb.put((byte) -3).putShort((short) 65000).putInt(-7).putLong(Long.MIN_VALUE + 1).putLong(-1L)
+                    .putFloat(1.5f).putDouble(-2.25);
+            MemorySegment segment = MemorySegment.ofArray(bb.array());
+
+            assertEquals(-3, SegmentValues.getLong(segment, 0, INT8, order));
+            assertEquals(65000, SegmentValues.getLong(segment, 1, UINT16, order));
+            assertEquals(-7, SegmentValues.getLong(segment, 3, INT32, order));
+            assertEquals(Long.MIN_VALUE + 1, SegmentValues.getLong(segment, 7, INT64, order));
+            assertEquals(-1L, SegmentValues.getLong(segment, 15, UINT64, order));
+            assertEquals(new BigInteger("18446744073709551615"), SegmentValues.getNumber(segment, 15, UINT64, order));
+            assertEquals(1.5f, SegmentValues.getFloat(segment, 23, order), 0f);
+            assertEquals(-2.25, SegmentValues.getDouble(segment, 27, order), 0.0);
+
+            SegmentTranslator st = new SegmentTranslator();
+            st.wrap(segment, order);
+            assertEquals((byte) -3, st.getNumber(INT8).getValue());
+            assertEquals(65000, st.getNumber(UINT16).getValue());
+            assertEquals(-7, st.getNumber(INT32).getValue());
+            assertEquals(7L, st.getBufferPositionIndex());
+        }
+    }
+
+    @Test
+    public void whenProcessingTemplateItShouldMatchFromBytesTranslator() {
+        ByteBuffer bb = ByteBuffer.allocate(256);
+        bb.putInt(42).put("abc".getBytes()).put(new byte[]{1, 2}).put("  12.5".getBytes());
+        long[] values = {1000, 1003, 1009, 1010};
+        ColumnCodec.encode(ColumnEncoding.DELTA, values, 0, values.length, bb);
+        bb.putShort((short) -9);
+        byte[] record = new byte[bb.position()];
+        System.arraycopy(bb.array(), 0, record, 0, record.length);
+
+        PrimitiveValue[] expected = {new NumberValue(UINT32), new StringValue(3), new ByteArrayValue(2),
+                new AsciiDecimalValue(6, 2), new EncodedColumnValue(), new NumberValue(INT16)};
+        FromBytesTranslator fbt = new FromBytesTranslator();
+        fbt.wrap(record);
+        fbt.processTemplatedValues(expected);
+
+        PrimitiveValue[] template = {new NumberValue(UINT32), new StringValue(3), new ByteArrayValue(2),
+                new AsciiDecimalValue(6, 2), new EncodedColumnValue(), new NumberValue(INT16)};
+        SegmentTranslator st = new SegmentTranslator();
+        st.wrap(MemorySegment.ofArray(record));
+        st.processTemplatedValues(template);
+
+        assertEquals(expected[0].getValue(), template[0].getValue());
+        assertEquals("abc", template[1].getValue());
+        assertArrayEquals((Byte[]) expected[2].getValue(), (Byte[]) template[2].getValue());
+        assertEquals(1250, ((AsciiDecimalValue) template[3]).getMantissa());
+        assertArrayEquals(values, ((EncodedColumnValue) template[4]).getValue());
+        assertEquals((short) -9, template[5].getValue());
+        assertEquals(record.length, st.getBufferPositionIndex());
+        assertFalse(st.hasMoreToRead());
+    }
+
+    @Test
+    public void whenReadingMappedFileItShouldUseLongPositions() throws IOException {
+        Path file = Files.createTempFile("segment", ".bin");
+        try {
+            ByteBuffer bb = ByteBuffer.allocate(16).putLong(7).putLong(-8);
+            Files.write(file, bb.array());
+            try (Arena arena = Arena.ofConfined()) {
+                SegmentTranslator st = new SegmentTranslator();
+                st.wrap(SegmentTranslator.map(file, arena));
+                st.setBufferPositionIndex(8L);
+                assertEquals(-8L, st.getNumber(INT64).getValue());
+                assertFalse(st.canReadValue(1));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = UnexpectedArrayLengthException.class)
+    public void whenValueDoesNotFitItShouldThrowException() {
+        SegmentTranslator st = new SegmentTranslator();
+        st.wrap(MemorySegment.ofArray(new byte[3]));
+        st.getNumber(INT32);
+    }
+
+    @Test(expected = BufferEmptyException.class)
+    public void whenNothingIsWrappedItShouldThrowException() {
+        new SegmentTranslator().getString(1);
+    }
+}